@@ -0,0 +1,438 @@
+package com.myproject.gdocs2slides;
+
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.services.slides.v1.Slides;
+import com.google.api.services.slides.v1.model.BatchUpdatePresentationRequest;
+import com.google.api.services.slides.v1.model.Page;
+import com.google.api.services.slides.v1.model.PageElement;
+import com.google.api.services.slides.v1.model.Presentation;
+import com.google.api.services.slides.v1.model.Request;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/* La classe AdaptiveBatcher découpe les requêtes Slides en BatchUpdatePresentationRequest dimensionnés
+ *  par nombre de requêtes et taille sérialisée estimée. Les tailles cibles s'ajustent aux latences et aux erreurs
+ *  observées : elles grandissent tant que les lots pleins restent rapides, et diminuent sur un appel lent ou en échec.
+ */
+public class AdaptiveBatcher {
+
+    public static final int MAX_REQUESTS_PER_BATCH = 500;
+    public static final long MAX_BATCH_BYTES = 2L * 1024 * 1024;  // Marge sous la limite de taille d'un appel
+    public static final long TARGET_LATENCY_MILLIS = 1500;
+    private static final int INITIAL_TARGET_REQUESTS = 100;
+    private static final long INITIAL_TARGET_BYTES = 128 * 1024;
+    private static final int MIN_TARGET_REQUESTS = 5;
+    private static final long MIN_TARGET_BYTES = 8 * 1024;
+    private static final double GROWTH = 1.25;
+    private static final int MAX_RETRIES = 4;
+    private static final long RETRY_BACKOFF_MILLIS = 1000;
+    private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
+
+    private static final AdaptiveBatcher DEFAULT = new AdaptiveBatcher();
+
+    private int targetRequests = INITIAL_TARGET_REQUESTS;
+    private long targetBytes = INITIAL_TARGET_BYTES;
+    private long retryCount = 0;
+    private long errorCount = 0;
+    private final Histogram batchSizes = new Histogram("requests", 1, 2, 5, 10, 20, 50, 100, 200, 500);
+    private final Histogram batchBytes = new Histogram("bytes", 1024, 4096, 16384, 65536, 262144, 1048576, 2097152);
+    private final Histogram latencies = new Histogram("ms", 50, 100, 200, 500, 1000, 2000, 5000, 10000);
+
+    /* Histogramme à bornes fixes : chaque valeur est comptée dans le premier intervalle dont la borne la contient.*/
+    public static final class Histogram {
+        private final String unit;
+        private final long[] bounds;
+        private final long[] counts;
+        private long total = 0;
+        private long sum = 0;
+
+        private Histogram(String unit, long... bounds) {
+            this.unit = unit;
+            this.bounds = bounds;
+            this.counts = new long[bounds.length + 1];
+        }
+
+        private synchronized void record(long value) {
+            int bucket = 0;
+            while (bucket < bounds.length && value > bounds[bucket]) {
+                bucket++;
+            }
+            counts[bucket]++;
+            total++;
+            sum += value;
+        }
+
+        /* Retourne le nombre de valeurs enregistrées.*/
+        public synchronized long getCount() {
+            return total;
+        }
+
+        /* Retourne la moyenne des valeurs enregistrées, 0 si aucune.*/
+        public synchronized double getMean() {
+            return total == 0 ? 0 : (double) sum / total;
+        }
+
+        /* Retourne les compteurs par intervalle ; le dernier compte les valeurs au-delà de la plus grande borne.*/
+        public synchronized long[] getCounts() {
+            return counts.clone();
+        }
+
+        /* Retourne les bornes supérieures (incluses) des intervalles.*/
+        public long[] getBounds() {
+            return bounds.clone();
+        }
+
+        @Override
+        public synchronized String toString() {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    continue;
+                }
+                if (text.length() > 0) {
+                    text.append(", ");
+                }
+                text.append(i < bounds.length ? "<=" + bounds[i] : ">" + bounds[bounds.length - 1]).append(": ")
+                    .append(counts[i]);
+            }
+            return String.format("%d batches, mean %.0f %s [%s]", total, getMean(), unit, text);
+        }
+    }
+
+    /* Action exécutée avant de renvoyer un lot refusé par un 429, à la place de l'attente à durée croissante.*/
+    @FunctionalInterface
+    public interface ThrottleHandler {
+        void beforeRetry() throws IOException;
+    }
+
+    /* Destination des lots d'une session de planification : chaque lot lui est remis dans l'ordre, sans appel réseau.*/
+    @FunctionalInterface
+    public interface BatchSink {
+        void accept(List<Request> batch) throws IOException;
+    }
+
+    /**
+     * Suite ordonnée de requêtes pour une présentation : les requêtes s'accumulent et partent par lots
+     * dès que le lot en cours atteindrait la taille cible. Une session sans service Slides remet ses lots
+     * à sa destination, ou ne fait que les compter.
+     */
+    public final class Session {
+        private final Slides slidesService;
+        private final String presentationId;
+        private final ThrottleHandler throttleHandler;
+        private final BatchSink sink;
+        private List<Request> pending = new ArrayList<>();
+        private long pendingBytes = 0;
+        private int batchCount = 0;
+
+        private Session(Slides slidesService, String presentationId, ThrottleHandler throttleHandler, BatchSink sink) {
+            this.slidesService = slidesService;
+            this.presentationId = presentationId;
+            this.throttleHandler = throttleHandler;
+            this.sink = sink;
+        }
+
+        /* Ajoute un groupe de requêtes (typiquement une diapositive), gardé dans un seul lot s'il tient dans la cible.*/
+        public void add(List<Request> group) throws IOException {
+            long[] sizes = new long[group.size()];
+            long groupBytes = 0;
+            for (int i = 0; i < group.size(); i++) {
+                sizes[i] = estimateBytes(group.get(i));
+                groupBytes += sizes[i];
+            }
+            if (!pending.isEmpty() && !fits(pending.size() + group.size(), pendingBytes + groupBytes)) {
+                flush();
+            }
+            // Un groupe plus grand que la cible est découpé, dans l'ordre, en plusieurs lots
+            for (int i = 0; i < group.size(); i++) {
+                if (!pending.isEmpty() && !fits(pending.size() + 1, pendingBytes + sizes[i])) {
+                    flush();
+                }
+                pending.add(group.get(i));
+                pendingBytes += sizes[i];
+            }
+        }
+
+        /* Envoie le lot en cours, s'il n'est pas vide.*/
+        public void flush() throws IOException {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<Request> batch = pending;
+            long bytes = pendingBytes;
+            pending = new ArrayList<>();
+            pendingBytes = 0;
+            batchCount++;
+            if (slidesService != null) {
+                send(slidesService, presentationId, throttleHandler, batch, bytes, 0);
+            } else if (sink != null) {
+                sink.accept(batch);
+            }
+        }
+
+        /* Retourne le nombre de lots envoyés (ou comptés) par la session.*/
+        public int getBatchCount() {
+            return batchCount;
+        }
+    }
+
+    /* Retourne l'instance partagée par les écrivains du processus, qui cumule les ajustements et les histogrammes.*/
+    public static AdaptiveBatcher getDefault() {
+        return DEFAULT;
+    }
+
+    /* Ouvre une session d'envoi ordonné pour une présentation.*/
+    public Session open(Slides slidesService, String presentationId) {
+        return new Session(slidesService, presentationId, null, null);
+    }
+
+    /* Ouvre une session d'envoi ordonné dont les lots refusés par un 429 appellent l'action donnée avant d'être renvoyés.*/
+    public Session open(Slides slidesService, String presentationId, ThrottleHandler throttleHandler) {
+        return new Session(slidesService, presentationId, throttleHandler, null);
+    }
+
+    /* Ouvre une session de planification : les lots, découpés comme à l'envoi, sont remis à la destination donnée.*/
+    public Session plan(BatchSink sink) {
+        return new Session(null, null, null, sink);
+    }
+
+    /* Envoie une liste ordonnée de requêtes en autant de lots que nécessaire.*/
+    public void executeAll(Slides slidesService, String presentationId, List<Request> requests) throws IOException {
+        Session session = open(slidesService, presentationId);
+        session.add(requests);
+        session.flush();
+    }
+
+    /* Compte les lots qu'enverrait une suite de groupes de requêtes avec les tailles cibles actuelles, sans appel réseau.*/
+    public int projectBatchCount(List<List<Request>> groups) {
+        Session session = open(null, null);
+        try {
+            for (List<Request> group : groups) {
+                session.add(group);
+            }
+            session.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException("A counting session never calls the API", e);
+        }
+        return session.getBatchCount();
+    }
+
+    /* Exécute un lot ; sur une limitation (429, 503), réduit la cible et renvoie le lot redécoupé après une attente.
+     * Sur une erreur serveur (500, 502, 504), le lot a pu être appliqué : il n'est renvoyé qu'après vérification.*/
+    private void send(Slides slidesService, String presentationId, ThrottleHandler throttleHandler, List<Request> batch,
+            long bytes, int attempt) throws IOException {
+        long start = System.nanoTime();
+        try {
+            slidesService.presentations()
+                .batchUpdate(presentationId, new BatchUpdatePresentationRequest().setRequests(batch))
+                .execute();
+        } catch (GoogleJsonResponseException e) {
+            // Une requête invalide (400) ne dit rien de la taille des lots : seules les erreurs temporaires la réduisent
+            int statusCode = e.getStatusCode();
+            boolean throttled = isThrottled(statusCode);
+            boolean serverError = isServerError(statusCode);
+            onFailure(throttled || serverError);
+            if (!(throttled || serverError) || attempt >= MAX_RETRIES) {
+                throw e;
+            }
+            if (serverError && wasApplied(slidesService, presentationId, batch, e)) {
+                System.err.println("batchUpdate of " + batch.size() + " requests failed (" + statusCode
+                        + ") but was applied, not resending");
+                return;
+            }
+            synchronized (this) {
+                retryCount++;
+            }
+            System.err.println("batchUpdate of " + batch.size() + " requests failed (" + statusCode
+                    + "), retrying with smaller batches");
+            if (statusCode == 429 && throttleHandler != null) {
+                throttleHandler.beforeRetry();
+            } else {
+                sleep(RETRY_BACKOFF_MILLIS << attempt);
+            }
+            // Un batchUpdate est atomique : rien n'a été appliqué, le lot peut être renvoyé découpé à la nouvelle cible
+            resend(slidesService, presentationId, throttleHandler, batch, attempt + 1);
+            return;
+        } catch (IOException e) {
+            // Délai dépassé ou connexion perdue : le lot a pu être appliqué, il n'est donc pas renvoyé
+            onFailure(true);
+            throw e;
+        }
+        onSuccess(batch.size(), bytes, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Indique si un lot en erreur serveur a malgré tout été appliqué, en cherchant dans la présentation le premier
+     * objet qu'il crée ; un batchUpdate étant atomique, cet objet suffit à trancher.
+     * @throws GoogleJsonResponseException l'erreur d'origine si le lot ne crée aucun objet vérifiable
+     */
+    private static boolean wasApplied(Slides slidesService, String presentationId, List<Request> batch,
+            GoogleJsonResponseException error) throws IOException {
+        String objectId = firstCreatedObjectId(batch);
+        if (objectId == null) {
+            throw error;
+        }
+        Presentation presentation = slidesService.presentations().get(presentationId)
+            .setFields("slides(objectId,pageElements(objectId))").execute();
+        if (presentation.getSlides() != null) {
+            for (Page slide : presentation.getSlides()) {
+                if (objectId.equals(slide.getObjectId())) {
+                    return true;
+                }
+                if (slide.getPageElements() != null) {
+                    for (PageElement element : slide.getPageElements()) {
+                        if (objectId.equals(element.getObjectId())) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /* Retourne l'identifiant du premier objet (diapositive, image, tableau ou forme) créé par un lot, ou null.*/
+    static String firstCreatedObjectId(List<Request> batch) {
+        for (Request request : batch) {
+            if (request.getCreateSlide() != null) {
+                return request.getCreateSlide().getObjectId();
+            }
+            if (request.getCreateImage() != null) {
+                return request.getCreateImage().getObjectId();
+            }
+            if (request.getCreateTable() != null) {
+                return request.getCreateTable().getObjectId();
+            }
+            if (request.getCreateShape() != null) {
+                return request.getCreateShape().getObjectId();
+            }
+        }
+        return null;
+    }
+
+    /* Renvoie les requêtes d'un lot en échec, dans l'ordre, en lots conformes à la cible actuelle.*/
+    private void resend(Slides slidesService, String presentationId, ThrottleHandler throttleHandler,
+            List<Request> requests, int attempt) throws IOException {
+        List<Request> batch = new ArrayList<>();
+        long bytes = 0;
+        for (Request request : requests) {
+            long size = estimateBytes(request);
+            if (!batch.isEmpty() && !fits(batch.size() + 1, bytes + size)) {
+                send(slidesService, presentationId, throttleHandler, batch, bytes, attempt);
+                batch = new ArrayList<>();
+                bytes = 0;
+            }
+            batch.add(request);
+            bytes += size;
+        }
+        if (!batch.isEmpty()) {
+            send(slidesService, presentationId, throttleHandler, batch, bytes, attempt);
+        }
+    }
+
+    /* Enregistre un lot réussi et ajuste les cibles selon sa latence.*/
+    private synchronized void onSuccess(int requests, long bytes, long latencyMillis) {
+        batchSizes.record(requests);
+        batchBytes.record(bytes);
+        latencies.record(latencyMillis);
+        if (latencyMillis > TARGET_LATENCY_MILLIS) {
+            // Appel lent : réduction proportionnelle au dépassement, au plus de moitié
+            double factor = Math.max(0.5, (double) TARGET_LATENCY_MILLIS / latencyMillis);
+            scaleTargets(factor);
+        } else if (requests >= targetRequests * 0.8 || bytes >= targetBytes * 0.8) {
+            // Seuls les lots proches de la cible prouvent qu'une cible plus grande resterait rapide
+            scaleTargets(GROWTH);
+        }
+    }
+
+    /* Enregistre un lot en échec et, si demandé, divise les cibles par deux.*/
+    private synchronized void onFailure(boolean shrink) {
+        errorCount++;
+        if (shrink) {
+            scaleTargets(0.5);
+        }
+    }
+
+    /* Multiplie les cibles par le facteur donné, dans les limites autorisées.*/
+    private void scaleTargets(double factor) {
+        targetRequests = (int) Math.max(MIN_TARGET_REQUESTS,
+                Math.min(MAX_REQUESTS_PER_BATCH, Math.round(targetRequests * factor)));
+        targetBytes = Math.max(MIN_TARGET_BYTES, Math.min(MAX_BATCH_BYTES, Math.round(targetBytes * factor)));
+    }
+
+    /* Indique si un lot de la taille donnée respecte les cibles actuelles.*/
+    private synchronized boolean fits(int requests, long bytes) {
+        return requests <= targetRequests && bytes <= targetBytes;
+    }
+
+    /* Indique si une erreur HTTP est une limitation (quota ou surcharge), pour laquelle rien n'a été appliqué.*/
+    private static boolean isThrottled(int statusCode) {
+        return statusCode == 429 || statusCode == 503;
+    }
+
+    /* Indique si une erreur HTTP est une erreur serveur après laquelle le lot a pu être appliqué.*/
+    private static boolean isServerError(int statusCode) {
+        return statusCode == 500 || statusCode == 502 || statusCode == 504;
+    }
+
+    /* Estime la taille sérialisée d'une requête, en octets.*/
+    static long estimateBytes(Request request) {
+        try {
+            return JSON_FACTORY.toString(request).getBytes(StandardCharsets.UTF_8).length + 1;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /* Attend la durée donnée avant une nouvelle tentative.*/
+    private static void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting to retry a batchUpdate", e);
+        }
+    }
+
+    /* Retourne la taille cible actuelle d'un lot, en requêtes.*/
+    public synchronized int getTargetRequests() {
+        return targetRequests;
+    }
+
+    /* Retourne la taille cible actuelle d'un lot, en octets sérialisés.*/
+    public synchronized long getTargetBytes() {
+        return targetBytes;
+    }
+
+    /* Retourne l'histogramme du nombre de requêtes par lot réussi.*/
+    public Histogram getBatchSizeHistogram() {
+        return batchSizes;
+    }
+
+    /* Retourne l'histogramme de la taille sérialisée des lots réussis.*/
+    public Histogram getBatchBytesHistogram() {
+        return batchBytes;
+    }
+
+    /* Retourne l'histogramme des latences des lots réussis.*/
+    public Histogram getLatencyHistogram() {
+        return latencies;
+    }
+
+    /* Retourne un résumé des cibles, des erreurs et des histogrammes, pour le réglage.*/
+    public synchronized List<String> report() {
+        List<String> report = new ArrayList<>();
+        report.add("target: " + targetRequests + " requests / " + targetBytes + " bytes, "
+                + errorCount + " failed batches, " + retryCount + " retries");
+        report.add("batch size: " + batchSizes);
+        report.add("batch bytes: " + batchBytes);
+        report.add("latency: " + latencies);
+        return Collections.unmodifiableList(report);
+    }
+}
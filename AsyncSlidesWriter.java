@@ -0,0 +1,272 @@
+package com.myproject.gdocs2slides;
+
+import com.google.api.services.slides.v1.Slides;
+import com.google.api.services.slides.v1.model.Request;
+import com.myproject.gdocs2slides.model.ContentElement;
+import com.myproject.gdocs2slides.model.PlannedSlide;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+/* La classe AsyncSlidesWriter écrit une présentation en pipeline : la préparation des diapositives (résolution des images,
+ *  construction des requêtes) avance sur des threads de travail, tandis que les créations de diapositives sont validées
+ *  dans l'ordre. Les contenus des diapositives validées ensemble sont regroupés en lots par l'AdaptiveBatcher, comme
+ *  dans l'écriture séquentielle, et seuls ces lots s'exécutent en parallèle.
+ */
+public class AsyncSlidesWriter {
+
+    public static final int DEFAULT_WORKER_THREADS = 4;
+    public static final int DEFAULT_MAX_IN_FLIGHT = 4;
+
+    private final Slides slidesService;
+    private final ConversionProfile profile;
+    private final int workerThreads;
+    private final int maxInFlight;
+    private final DeckTemplate template;  // Modèle copié pour chaque présentation, null pour une présentation vide
+    private final AdaptiveBatcher batcher;
+    private final ImageProbe imageProbe;
+
+    /* Diapositive préparée : la requête de création (ordonnée) et les requêtes de contenu (non ordonnées).*/
+    private static final class PreparedSlide {
+        private final List<Request> structure = new ArrayList<>();
+        private final List<Request> content = new ArrayList<>();
+        private String slideId;
+        private String speakerNotes;
+    }
+
+    /* Construit un écrivain asynchrone avec les paramètres par défaut.*/
+    public AsyncSlidesWriter(Slides slidesService, ConversionProfile profile) {
+        this(slidesService, profile, DEFAULT_WORKER_THREADS, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /* Construit un écrivain asynchrone avec un nombre de threads de préparation et de batchUpdate simultanés.*/
+    public AsyncSlidesWriter(Slides slidesService, ConversionProfile profile, int workerThreads, int maxInFlight) {
+        this(slidesService, profile, workerThreads, maxInFlight, null);
+    }
+
+    /* Construit un écrivain asynchrone dont les présentations partent d'une copie du modèle donné s'il n'est pas nul.*/
+    public AsyncSlidesWriter(Slides slidesService, ConversionProfile profile, int workerThreads, int maxInFlight,
+                             DeckTemplate template) {
+        this(slidesService, profile, workerThreads, maxInFlight, template, AdaptiveBatcher.getDefault());
+    }
+
+    /* Construit un écrivain asynchrone qui découpe ses lots avec l'AdaptiveBatcher donné.*/
+    AsyncSlidesWriter(Slides slidesService, ConversionProfile profile, int workerThreads, int maxInFlight,
+                      DeckTemplate template, AdaptiveBatcher batcher) {
+        if (workerThreads < 1 || maxInFlight < 1) {
+            throw new IllegalArgumentException("workerThreads and maxInFlight must be at least 1");
+        }
+        this.slidesService = slidesService;
+        this.profile = profile;
+        this.workerThreads = workerThreads;
+        this.maxInFlight = maxInFlight;
+        this.template = template;
+        this.batcher = batcher;
+        this.imageProbe = new ImageProbe(slidesService.getRequestFactory());
+    }
+
+    /* Convertit une liste d'éléments de contenu en une présentation Google Slides et retourne son URL.*/
+    public String convertToSlides(String title, List<ContentElement> contentElements) throws IOException {
+        // Vérification que la liste des éléments de contenu n'est pas nulle ou vide
+        if (contentElements == null || contentElements.isEmpty()) {
+            throw new IllegalArgumentException("Content elements cannot be null or empty");
+        }
+        List<PlannedSlide> plannedSlides = SlidePlanner.plan(contentElements, profile);
+        SlideRequestBuilder requestBuilder = template == null ? new SlideRequestBuilder(profile, false)
+                : new SlideRequestBuilder(profile, false, template.getLayouts(slidesService),
+                        template.getPageSize(slidesService));
+
+        ExecutorService workers = Executors.newFixedThreadPool(workerThreads, daemonThreads("slides-prepare"));
+        ExecutorService network = Executors.newFixedThreadPool(maxInFlight, daemonThreads("slides-commit"));
+        try {
+            // Lancement de la préparation de toutes les diapositives, qui s'exécute en avance sur les validations
+            List<CompletableFuture<PreparedSlide>> prepared = new ArrayList<>();
+            for (PlannedSlide plannedSlide : plannedSlides) {
+                prepared.add(CompletableFuture.supplyAsync(() -> prepare(plannedSlide, requestBuilder), workers));
+            }
+
+            // Création de la présentation pendant que les premières diapositives se préparent ; les jetons
+            // d'un modèle sont remplacés dans le premier lot ordonné, avec les premières créations de diapositives
+            String presentationId;
+            List<Request> firstRequests = new ArrayList<>();
+            if (template == null) {
+                presentationId = SlidesWriter.createPresentation(slidesService, title);
+            } else {
+                presentationId = template.copy(title);
+                firstRequests.addAll(template.tokenRequests(title));
+            }
+
+            commitInOrder(presentationId, prepared, firstRequests, network);
+
+            // Notes de l'orateur, une fois toutes les diapositives créées
+            Map<String, String> speakerNotes = new LinkedHashMap<>();
+            for (CompletableFuture<PreparedSlide> slide : prepared) {
+                if (slide.join().speakerNotes != null) {
+                    speakerNotes.put(slide.join().slideId, slide.join().speakerNotes);
+                }
+            }
+            AdaptiveBatcher.Session batches = batcher.open(slidesService, presentationId);
+            SlidesWriter.writeSpeakerNotes(batches, slidesService, presentationId, speakerNotes);
+            batches.flush();
+
+            // Génération de l'URL de la présentation
+            String presentationUrl = SlidesWriter.presentationUrl(presentationId);
+            System.out.println("Created presentation: " + presentationUrl);
+            return presentationUrl;
+        } finally {
+            workers.shutdownNow();
+            network.shutdownNow();
+        }
+    }
+
+    /* Valide les diapositives dans l'ordre : les créations prêtes sont regroupées dans un batchUpdate séquentiel,
+     * puis leurs contenus, regroupés en lots par l'AdaptiveBatcher, partent en parallèle avec au plus maxInFlight
+     * appels en cours. Les requêtes données sont validées avec les premières créations.*/
+    private void commitInOrder(String presentationId, List<CompletableFuture<PreparedSlide>> prepared,
+                               List<Request> firstRequests, ExecutorService network) throws IOException {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        List<CompletableFuture<Void>> contentCalls = new ArrayList<>();
+        int next = 0;
+        try {
+            while (next < prepared.size()) {
+                // Attente de la diapositive suivante, puis regroupement de toutes celles déjà prêtes derrière elle
+                List<PreparedSlide> ready = new ArrayList<>();
+                ready.add(prepared.get(next++).join());
+                while (next < prepared.size() && prepared.get(next).isDone()) {
+                    ready.add(prepared.get(next++).join());
+                }
+
+                // Les créations de diapositives fixent l'ordre : elles sont validées sur ce thread, dans l'ordre
+                List<Request> structure = new ArrayList<>(firstRequests);
+                firstRequests = List.of();
+                for (PreparedSlide slide : ready) {
+                    structure.addAll(slide.structure);
+                }
+                execute(presentationId, structure);
+
+                // Les contenus ne dépendent que de leur diapositive, déjà créée : ils sont regroupés en lots qui
+                // partent en parallèle. Le lot qui continue une diapositive découpée attend le lot précédent.
+                Map<Request, PreparedSlide> owners = new IdentityHashMap<>();
+                ContentDispatcher dispatcher = new ContentDispatcher(presentationId, owners, contentCalls, inFlight,
+                        network);
+                AdaptiveBatcher.Session contents = batcher.plan(dispatcher);
+                for (PreparedSlide slide : ready) {
+                    for (Request request : slide.content) {
+                        owners.put(request, slide);
+                    }
+                    contents.add(slide.content);
+                }
+                contents.flush();
+            }
+            CompletableFuture.allOf(contentCalls.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IOException("Failed to prepare or commit slides", e.getCause());
+        }
+    }
+
+    /* Destination des lots de contenu : chaque lot part sur le pool réseau dès qu'un appel se libère.*/
+    private final class ContentDispatcher implements AdaptiveBatcher.BatchSink {
+        private final String presentationId;
+        private final Map<Request, PreparedSlide> owners;
+        private final List<CompletableFuture<Void>> contentCalls;
+        private final Semaphore inFlight;
+        private final ExecutorService network;
+        private PreparedSlide lastOwner;            // Diapositive de la dernière requête du lot précédent
+        private CompletableFuture<Void> lastCall;   // Appel du lot précédent
+
+        private ContentDispatcher(String presentationId, Map<Request, PreparedSlide> owners,
+                                  List<CompletableFuture<Void>> contentCalls, Semaphore inFlight,
+                                  ExecutorService network) {
+            this.presentationId = presentationId;
+            this.owners = owners;
+            this.contentCalls = contentCalls;
+            this.inFlight = inFlight;
+            this.network = network;
+        }
+
+        @Override
+        public void accept(List<Request> batch) throws IOException {
+            failFast(contentCalls);
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while committing slides", e);
+            }
+            Runnable call = () -> executeUnchecked(presentationId, batch);
+            // Les requêtes d'une même diapositive restent dans l'ordre (création d'un tableau, puis ses cellules)
+            CompletableFuture<Void> future = lastCall != null && owners.get(batch.get(0)) == lastOwner
+                    ? lastCall.thenRunAsync(call, network)
+                    : CompletableFuture.runAsync(call, network);
+            lastCall = future.whenComplete((result, error) -> inFlight.release());
+            lastOwner = owners.get(batch.get(batch.size() - 1));
+            contentCalls.add(lastCall);
+        }
+    }
+
+    /* Prépare une diapositive sur un thread de travail : vérification de l'image puis construction des requêtes.*/
+    private PreparedSlide prepare(PlannedSlide plannedSlide, SlideRequestBuilder requestBuilder) {
+        if (plannedSlide.getKind() == PlannedSlide.SlideKind.IMAGE) {
+            // Vérification que l'image est accessible avant de l'insérer
+            plannedSlide = SlidesWriter.resolveImage(plannedSlide, imageProbe);
+        }
+        PreparedSlide slide = new PreparedSlide();
+        List<Request> requests = requestBuilder.buildSlide(plannedSlide);
+        slide.slideId = SlideRequestBuilder.slideIdOf(requests);
+        slide.speakerNotes = plannedSlide.getSpeakerNotes();
+        for (Request request : requests) {
+            if (request.getCreateSlide() != null) {
+                slide.structure.add(request);
+            } else {
+                slide.content.add(request);
+            }
+        }
+        return slide;
+    }
+
+    /* Lève immédiatement l'erreur d'un batchUpdate de contenu déjà terminé en échec.*/
+    private static void failFast(List<CompletableFuture<Void>> contentCalls) {
+        for (CompletableFuture<Void> call : contentCalls) {
+            if (call.isCompletedExceptionally()) {
+                call.join();
+            }
+        }
+    }
+
+    /* Exécute des requêtes sur la présentation, en lots dimensionnés par l'AdaptiveBatcher partagé.*/
+    private void execute(String presentationId, List<Request> requests) throws IOException {
+        batcher.executeAll(slidesService, presentationId, requests);
+    }
+
+    /* Exécute un batchUpdate depuis un thread du pool réseau.*/
+    private void executeUnchecked(String presentationId, List<Request> requests) {
+        try {
+            execute(presentationId, requests);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /* Retourne une fabrique de threads démons nommés.*/
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -11,6 +11,7 @@ public class ContentElement {
         HEADING_2,
         HEADING_3,
         PARAGRAPH,
+        LIST_ITEM,
         TABLE,
         IMAGE
     }
@@ -20,6 +21,10 @@ public class ContentElement {
     private String imageUrl;
     private int sectionLevel;
     private List<List<String>> tableData;
+    private List<TextStyleSpan> styleSpans; // Segments stylés du texte (gras, italique, liens...)
+    private String listId;    // Liste du document à laquelle appartient un élément LIST_ITEM
+    private int listLevel;    // Niveau d'imbrication dans la liste, 0 pour le premier niveau
+    private String listGlyph; // Type de puce du niveau (DECIMAL, ALPHA, ROMAN...) ou symbole de puce
     private double xPosition; // Coordonnée X en points
     private double yPosition; // Coordonnée Y en points
     private double width;     // Largeur en points
@@ -30,6 +35,7 @@ public class ContentElement {
         // Initialisation des attributs avec des valeurs par défaut
         this.type = type;
         this.tableData = new ArrayList<>();
+        this.styleSpans = new ArrayList<>();
         this.xPosition = 0.0;
         this.yPosition = 0.0;
         this.width = 0.0;
@@ -88,6 +94,46 @@ public class ContentElement {
         this.imageUrl = imageUrl;
     }
 
+    /* Retourne les segments stylés du texte de l'élément.*/
+    public List<TextStyleSpan> getStyleSpans() {
+        return styleSpans;
+    }
+
+    /* Définit les segments stylés du texte de l'élément.*/
+    public void setStyleSpans(List<TextStyleSpan> styleSpans) {
+        this.styleSpans = styleSpans;
+    }
+
+    /* Retourne l'identifiant de la liste de l'élément.*/
+    public String getListId() {
+        return listId;
+    }
+
+    /* Définit l'identifiant de la liste de l'élément.*/
+    public void setListId(String listId) {
+        this.listId = listId;
+    }
+
+    /* Retourne le niveau d'imbrication de l'élément dans sa liste.*/
+    public int getListLevel() {
+        return listLevel;
+    }
+
+    /* Définit le niveau d'imbrication de l'élément dans sa liste.*/
+    public void setListLevel(int listLevel) {
+        this.listLevel = listLevel;
+    }
+
+    /* Retourne le type ou le symbole de puce de l'élément.*/
+    public String getListGlyph() {
+        return listGlyph;
+    }
+
+    /* Définit le type ou le symbole de puce de l'élément.*/
+    public void setListGlyph(String listGlyph) {
+        this.listGlyph = listGlyph;
+    }
+
     /* Retourne le niveau de section de l'élément.*/
     public int getSectionLevel() {
         return sectionLevel;
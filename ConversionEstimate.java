@@ -0,0 +1,46 @@
+package com.myproject.gdocs2slides;
+
+/* La classe ConversionEstimate résume le coût projeté d'une conversion (diapositives, appels API, requêtes)
+ *  calculé à partir de la planification, avant tout appel à l'API Slides.
+ */
+public class ConversionEstimate {
+
+    private final ConversionProfile profile;
+    private final int slideCount;
+    private final int apiCallCount;
+    private final int requestCount;
+
+    /* Construit une estimation pour le profil donné.*/
+    public ConversionEstimate(ConversionProfile profile, int slideCount, int apiCallCount, int requestCount) {
+        this.profile = profile;
+        this.slideCount = slideCount;
+        this.apiCallCount = apiCallCount;
+        this.requestCount = requestCount;
+    }
+
+    /* Retourne le profil utilisé pour l'estimation.*/
+    public ConversionProfile getProfile() {
+        return profile;
+    }
+
+    /* Retourne le nombre de diapositives projeté.*/
+    public int getSlideCount() {
+        return slideCount;
+    }
+
+    /* Retourne le nombre d'appels à l'API Slides projeté (création, batchUpdate, lectures).*/
+    public int getApiCallCount() {
+        return apiCallCount;
+    }
+
+    /* Retourne le nombre total de requêtes projeté dans les batchUpdate.*/
+    public int getRequestCount() {
+        return requestCount;
+    }
+
+    @Override
+    public String toString() {
+        return profile.getName() + ": " + slideCount + " slides, " + apiCallCount + " API calls, "
+                + requestCount + " batch requests";
+    }
+}
@@ -0,0 +1,159 @@
+package com.myproject.gdocs2slides;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/* La classe ConversionProfile regroupe les limites de densité des diapositives (lignes, mots, tailles de police)
+ *  utilisées lors de la conversion, avec des préréglages "dense", "standard" et "presentation".
+ */
+public class ConversionProfile {
+
+    /* Traitement d'un paragraphe qui dépasse la limite de mots d'une diapositive.*/
+    public enum OverflowMode {
+        SPLIT,          // Découpage en diapositives consécutives
+        SPEAKER_NOTES   // Premières phrases sur la diapositive, suite du texte dans les notes de l'orateur
+    }
+
+    /* Beaucoup de texte par diapositive : moins de diapositives et moins d'appels API.*/
+    public static final ConversionProfile DENSE =
+            new ConversionProfile("dense", 14, 450, 28.0, 14.0, 12.0, 10.0, 700, 1100);
+    /* Valeurs historiques du convertisseur.*/
+    public static final ConversionProfile STANDARD =
+            new ConversionProfile("standard", 8, 300, 32.0, 18.0, 14.0, 12.0, 500, 800);
+    /* Peu de texte par diapositive, pour une projection en salle.*/
+    public static final ConversionProfile PRESENTATION =
+            new ConversionProfile("presentation", 5, 80, 36.0, 24.0, 20.0, 18.0, 250, 400);
+
+    private final String name;
+    private final int maxLinesPerSlide;
+    private final int maxWordsPerSlide;
+    private final double titleFontSize;
+    private final double bodyFontSizeDefault;
+    private final double bodyFontSizeMedium;
+    private final double bodyFontSizeSmall;
+    private final int mediumFontThreshold; // Nombre de caractères au-delà duquel la taille moyenne est utilisée
+    private final int smallFontThreshold;  // Nombre de caractères au-delà duquel la petite taille est utilisée
+    private final OverflowMode overflowMode;
+
+    /* Construit un profil personnalisé avec toutes les limites spécifiées ; les paragraphes trop longs sont découpés.*/
+    public ConversionProfile(String name, int maxLinesPerSlide, int maxWordsPerSlide, double titleFontSize,
+                             double bodyFontSizeDefault, double bodyFontSizeMedium, double bodyFontSizeSmall,
+                             int mediumFontThreshold, int smallFontThreshold) {
+        this(name, maxLinesPerSlide, maxWordsPerSlide, titleFontSize, bodyFontSizeDefault, bodyFontSizeMedium,
+                bodyFontSizeSmall, mediumFontThreshold, smallFontThreshold, OverflowMode.SPLIT);
+    }
+
+    /* Construit un profil personnalisé avec toutes les limites et le traitement des paragraphes trop longs spécifiés.*/
+    public ConversionProfile(String name, int maxLinesPerSlide, int maxWordsPerSlide, double titleFontSize,
+                             double bodyFontSizeDefault, double bodyFontSizeMedium, double bodyFontSizeSmall,
+                             int mediumFontThreshold, int smallFontThreshold, OverflowMode overflowMode) {
+        // Vérification de la cohérence des limites
+        if (maxLinesPerSlide < 1 || maxWordsPerSlide < 1) {
+            throw new IllegalArgumentException("Slide limits must be positive");
+        }
+        if (mediumFontThreshold > smallFontThreshold) {
+            throw new IllegalArgumentException("Medium font threshold cannot exceed small font threshold");
+        }
+        this.name = name;
+        this.maxLinesPerSlide = maxLinesPerSlide;
+        this.maxWordsPerSlide = maxWordsPerSlide;
+        this.titleFontSize = titleFontSize;
+        this.bodyFontSizeDefault = bodyFontSizeDefault;
+        this.bodyFontSizeMedium = bodyFontSizeMedium;
+        this.bodyFontSizeSmall = bodyFontSizeSmall;
+        this.mediumFontThreshold = mediumFontThreshold;
+        this.smallFontThreshold = smallFontThreshold;
+        this.overflowMode = overflowMode;
+    }
+
+    /* Retourne le préréglage correspondant au nom donné (insensible à la casse).*/
+    public static ConversionProfile fromName(String name) {
+        for (ConversionProfile preset : presets()) {
+            if (preset.getName().equals(name.trim().toLowerCase(Locale.ROOT))) {
+                return preset;
+            }
+        }
+        throw new IllegalArgumentException("Unknown conversion profile: " + name
+                + " (expected dense, standard or presentation)");
+    }
+
+    /* Retourne la liste des préréglages disponibles.*/
+    public static List<ConversionProfile> presets() {
+        return Arrays.asList(DENSE, STANDARD, PRESENTATION);
+    }
+
+    /* Retourne une copie personnalisée de ce profil avec d'autres limites de lignes et de mots.*/
+    public ConversionProfile withSlideLimits(int maxLines, int maxWords) {
+        return new ConversionProfile("custom", maxLines, maxWords, titleFontSize, bodyFontSizeDefault,
+                bodyFontSizeMedium, bodyFontSizeSmall, mediumFontThreshold, smallFontThreshold, overflowMode);
+    }
+
+    /* Retourne une copie de ce profil avec un autre traitement des paragraphes trop longs.*/
+    public ConversionProfile withOverflowMode(OverflowMode mode) {
+        return new ConversionProfile(name, maxLinesPerSlide, maxWordsPerSlide, titleFontSize, bodyFontSizeDefault,
+                bodyFontSizeMedium, bodyFontSizeSmall, mediumFontThreshold, smallFontThreshold, mode);
+    }
+
+    /* Retourne la taille de police du corps adaptée à la longueur du texte.*/
+    public double bodyFontSizeFor(String bodyText) {
+        return bodyText.length() > smallFontThreshold ? bodyFontSizeSmall :
+               bodyText.length() > mediumFontThreshold ? bodyFontSizeMedium : bodyFontSizeDefault;
+    }
+
+    /* Retourne le nom du profil.*/
+    public String getName() {
+        return name;
+    }
+
+    /* Retourne le nombre maximal de lignes par diapositive.*/
+    public int getMaxLinesPerSlide() {
+        return maxLinesPerSlide;
+    }
+
+    /* Retourne le nombre maximal de mots par diapositive.*/
+    public int getMaxWordsPerSlide() {
+        return maxWordsPerSlide;
+    }
+
+    /* Retourne la taille de police des titres.*/
+    public double getTitleFontSize() {
+        return titleFontSize;
+    }
+
+    /* Retourne la taille de police par défaut du corps.*/
+    public double getBodyFontSizeDefault() {
+        return bodyFontSizeDefault;
+    }
+
+    /* Retourne la taille de police moyenne du corps.*/
+    public double getBodyFontSizeMedium() {
+        return bodyFontSizeMedium;
+    }
+
+    /* Retourne la petite taille de police du corps, utilisée aussi pour les tableaux.*/
+    public double getBodyFontSizeSmall() {
+        return bodyFontSizeSmall;
+    }
+
+    /* Retourne le seuil en caractères de la taille moyenne.*/
+    public int getMediumFontThreshold() {
+        return mediumFontThreshold;
+    }
+
+    /* Retourne le seuil en caractères de la petite taille.*/
+    public int getSmallFontThreshold() {
+        return smallFontThreshold;
+    }
+
+    /* Retourne le traitement des paragraphes qui dépassent la limite de mots.*/
+    public OverflowMode getOverflowMode() {
+        return overflowMode;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + maxLinesPerSlide + " lines, " + maxWordsPerSlide + " words per slide"
+                + (overflowMode == OverflowMode.SPEAKER_NOTES ? ", overflow to speaker notes" : "") + ")";
+    }
+}
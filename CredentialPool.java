@@ -0,0 +1,236 @@
+package com.myproject.gdocs2slides;
+
+import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.HttpUnsuccessfulResponseHandler;
+import com.google.api.services.docs.v1.Docs;
+import com.google.api.services.slides.v1.Slides;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/* La classe CredentialPool regroupe plusieurs identités autorisées (comptes OAuth et comptes de service)
+ *  et attribue à chaque conversion le client de l'identité la moins récemment limitée, afin de répartir les quotas.
+ *  Une identité qui reçoit un 429 est mise en pause pendant une durée qui double à chaque limitation consécutive.
+ */
+public class CredentialPool {
+
+    public static final long DEFAULT_COOLDOWN_MILLIS = 30_000;
+    private static final long MAX_COOLDOWN_MILLIS = 10 * 60_000;
+
+    private final List<Identity> identities;
+    private final long cooldownMillis;
+    private final LongSupplier clock;   // Horloge en millisecondes, remplaçable par les tests
+
+    /* Identité du pool : ses clients Docs et Slides et ses compteurs d'utilisation.*/
+    private static final class Identity {
+        private final String name;
+        private Docs docsService;
+        private Slides slidesService;
+        private final AtomicLong requestCount = new AtomicLong();
+        private final AtomicLong throttleCount = new AtomicLong();
+        private long lastThrottledAt = 0;   // Instant du dernier 429, 0 si jamais limitée
+        private long cooldownUntil = 0;     // Instant jusqu'auquel l'identité n'est pas attribuée
+        private int consecutiveThrottles = 0;
+        private int activeLeases = 0;
+
+        private Identity(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Client attribué à une conversion ; à fermer à la fin de la conversion pour rendre l'identité au pool.
+     */
+    public final class Lease implements AutoCloseable {
+        private final Identity identity;
+        private boolean released = false;
+
+        private Lease(Identity identity) {
+            this.identity = identity;
+        }
+
+        /* Retourne le service Docs de l'identité attribuée.*/
+        public Docs getDocsService() {
+            return identity.docsService;
+        }
+
+        /* Retourne le service Slides de l'identité attribuée.*/
+        public Slides getSlidesService() {
+            return identity.slidesService;
+        }
+
+        /* Retourne le nom de l'identité attribuée.*/
+        public String getIdentityName() {
+            return identity.name;
+        }
+
+        /* Rend l'identité au pool après une limitation, puis attend qu'elle soit de nouveau attribuable (fin de sa pause).
+         * Sert aux travaux liés à cette identité, comme l'écriture d'une présentation qui lui appartient.*/
+        public void requeue() throws InterruptedException {
+            synchronized (CredentialPool.this) {
+                identity.activeLeases--;
+                CredentialPool.this.notifyAll();
+                try {
+                    long now;
+                    while ((now = clock.getAsLong()) < identity.cooldownUntil) {
+                        CredentialPool.this.wait(identity.cooldownUntil - now);
+                    }
+                } finally {
+                    identity.activeLeases++;
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (CredentialPool.this) {
+                if (!released) {
+                    released = true;
+                    identity.activeLeases--;
+                    CredentialPool.this.notifyAll();
+                }
+            }
+        }
+    }
+
+    private CredentialPool(long cooldownMillis) {
+        this(cooldownMillis, System::currentTimeMillis);
+    }
+
+    /* Construit un pool vide dont les pauses sont mesurées avec l'horloge donnée.*/
+    CredentialPool(long cooldownMillis, LongSupplier clock) {
+        this.identities = new ArrayList<>();
+        this.cooldownMillis = cooldownMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Charge un pool à partir d'identités OAuth stockées dans le répertoire des jetons et de fichiers de clé de comptes de service.
+     * @param userIds les clés des identités OAuth (chacune est autorisée au premier chargement si nécessaire)
+     * @param serviceAccountKeys les fichiers de clé JSON des comptes de service
+     * @param cooldownMillis durée de pause initiale après un 429
+     */
+    public static CredentialPool load(List<String> userIds, List<Path> serviceAccountKeys, long cooldownMillis)
+            throws Exception {
+        CredentialPool pool = new CredentialPool(cooldownMillis);
+        HttpTransport httpTransport = GoogleNetHttpTransport.newTrustedTransport();
+        for (String userId : userIds) {
+            pool.add("user:" + userId, httpTransport, GoogleServiceUtil.getCredentials(httpTransport, userId));
+        }
+        for (Path keyFile : serviceAccountKeys) {
+            pool.add("service:" + keyFile.getFileName(), httpTransport,
+                    GoogleServiceUtil.getServiceAccountCredentials(keyFile));
+        }
+        if (pool.identities.isEmpty()) {
+            throw new IllegalArgumentException("A credential pool needs at least one identity");
+        }
+        System.out.println("Credential pool loaded with " + pool.identities.size() + " identities");
+        return pool;
+    }
+
+    /* Ajoute une identité authentifiée par l'initialiseur donné (Credential OAuth ou adaptateur de compte de service),
+     * dont les requêtes sont comptées et dont les réponses 429 déclenchent une pause.*/
+    void add(String name, HttpTransport httpTransport, HttpRequestInitializer credentials) {
+        Identity identity = new Identity(name);
+        HttpRequestInitializer initializer = request -> {
+            credentials.initialize(request);
+            identity.requestCount.incrementAndGet();
+            // Enchaînement avec le gestionnaire des informations d'authentification, qui rafraîchit le jeton sur un 401
+            HttpUnsuccessfulResponseHandler delegate = request.getUnsuccessfulResponseHandler();
+            request.setUnsuccessfulResponseHandler((failedRequest, response, supportsRetry) -> {
+                if (response.getStatusCode() == 429) {
+                    markThrottled(identity);
+                }
+                return delegate != null && delegate.handleResponse(failedRequest, response, supportsRetry);
+            });
+            request.setResponseInterceptor(response -> {
+                if (response.isSuccessStatusCode()) {
+                    markHealthy(identity);
+                }
+            });
+        };
+        identity.docsService = GoogleServiceUtil.buildDocsService(httpTransport, initializer);
+        identity.slidesService = GoogleServiceUtil.buildSlidesService(httpTransport, initializer);
+        identities.add(identity);
+    }
+
+    /**
+     * Attribue l'identité disponible la moins occupée, en départageant par la moins récemment limitée.
+     * Si toutes les identités sont en pause, attend la fin de la pause la plus courte.
+     */
+    public synchronized Lease acquire() throws InterruptedException {
+        while (true) {
+            long now = clock.getAsLong();
+            Identity best = null;
+            long earliestCooldownEnd = Long.MAX_VALUE;
+            for (Identity identity : identities) {
+                if (identity.cooldownUntil > now) {
+                    earliestCooldownEnd = Math.min(earliestCooldownEnd, identity.cooldownUntil);
+                    continue;
+                }
+                if (best == null || isPreferred(identity, best)) {
+                    best = identity;
+                }
+            }
+            if (best != null) {
+                best.activeLeases++;
+                return new Lease(best);
+            }
+            // Toutes les identités sont en pause : attendre la première reprise ou une libération
+            wait(Math.max(1, earliestCooldownEnd - now));
+        }
+    }
+
+    /* Indique si une identité doit être préférée à une autre : la moins occupée, puis la moins récemment limitée,
+     * puis celle qui a envoyé le moins de requêtes.*/
+    private static boolean isPreferred(Identity candidate, Identity current) {
+        if (candidate.activeLeases != current.activeLeases) {
+            return candidate.activeLeases < current.activeLeases;
+        }
+        if (candidate.lastThrottledAt != current.lastThrottledAt) {
+            return candidate.lastThrottledAt < current.lastThrottledAt;
+        }
+        return candidate.requestCount.get() < current.requestCount.get();
+    }
+
+    /* Met une identité en pause après un 429, avec une durée doublée à chaque limitation consécutive.*/
+    private synchronized void markThrottled(Identity identity) {
+        long now = clock.getAsLong();
+        identity.throttleCount.incrementAndGet();
+        identity.consecutiveThrottles++;
+        identity.lastThrottledAt = now;
+        long pause = Math.min(MAX_COOLDOWN_MILLIS,
+                cooldownMillis << Math.min(identity.consecutiveThrottles - 1, 16));
+        identity.cooldownUntil = now + pause;
+        System.err.println("Identity " + identity.name + " throttled (429), cooling down for " + pause + " ms");
+    }
+
+    /* Réinitialise la série de limitations d'une identité après une réponse réussie.*/
+    private synchronized void markHealthy(Identity identity) {
+        identity.consecutiveThrottles = 0;
+    }
+
+    /* Retourne le nombre d'identités du pool.*/
+    public int size() {
+        return identities.size();
+    }
+
+    /* Retourne un résumé de l'utilisation de chaque identité (requêtes, 429, pause en cours).*/
+    public synchronized List<String> usageReport() {
+        List<String> report = new ArrayList<>();
+        long now = clock.getAsLong();
+        for (Identity identity : identities) {
+            report.add(identity.name + ": " + identity.requestCount.get() + " requests, "
+                    + identity.throttleCount.get() + " throttled, "
+                    + (identity.cooldownUntil > now ? "cooling down " + (identity.cooldownUntil - now) + " ms" : "available")
+                    + ", " + identity.activeLeases + " active jobs");
+        }
+        return Collections.unmodifiableList(report);
+    }
+}
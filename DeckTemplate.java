@@ -0,0 +1,125 @@
+package com.myproject.gdocs2slides;
+
+import com.google.api.services.slides.v1.Slides;
+import com.google.api.services.slides.v1.model.Page;
+import com.google.api.services.slides.v1.model.Presentation;
+import com.google.api.services.slides.v1.model.ReplaceAllTextRequest;
+import com.google.api.services.slides.v1.model.Request;
+import com.google.api.services.slides.v1.model.Size;
+import com.google.api.services.slides.v1.model.SubstringMatchCriteria;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/* La classe DeckTemplate décrit une présentation modèle (thème, mises en page personnalisées, diapositives à jetons) :
+ *  chaque conversion en part d'une copie, crée ses diapositives sur les mises en page du modèle et remplit
+ *  les jetons {{title}} et {{date}} par des ReplaceAllTextRequest.
+ *  Les mises en page et la taille de page d'un modèle sont lues une seule fois par processus.
+ */
+public class DeckTemplate {
+
+    public static final String TITLE_TOKEN = "{{title}}";
+    public static final String DATE_TOKEN = "{{date}}";
+    private static final Map<String, Presentation> TEMPLATE_CACHE = new ConcurrentHashMap<>();
+
+    private final String templateId;
+    private final PresentationCopier copier;
+
+    /* Construit un modèle à partir de l'identifiant de sa présentation et du moyen de la copier.*/
+    public DeckTemplate(String templateId, PresentationCopier copier) {
+        this.templateId = templateId;
+        this.copier = copier;
+    }
+
+    /* Construit un modèle copié par Drive avec les identifiants du service Slides donné.*/
+    public static DeckTemplate drive(String templateId, Slides slidesService) {
+        return new DeckTemplate(templateId, new DrivePresentationCopier(slidesService.getRequestFactory()));
+    }
+
+    /* Copie le modèle sous un titre suivi d'un horodatage et retourne l'identifiant de la copie.*/
+    public String copy(String title) throws IOException {
+        String presentationId = copier.copy(templateId, title + " - " + timestamp());
+        System.out.println("Copied template " + templateId + " to " + presentationId);
+        return presentationId;
+    }
+
+    /**
+     * Retourne les mises en page du modèle, indexées par le nom de mise en page prédéfinie qu'elles remplacent
+     * (TITLE, TITLE_AND_BODY, SECTION_HEADER, BLANK...). Une copie conserve les identifiants de ses mises en page :
+     * le modèle est lu une fois par processus, avec un masque limité aux mises en page.
+     */
+    public Map<String, String> getLayouts(Slides slidesService) throws IOException {
+        Presentation template = read(slidesService);
+        Map<String, String> layouts = new HashMap<>();
+        if (template.getLayouts() != null) {
+            for (Page layout : template.getLayouts()) {
+                if (layout.getLayoutProperties() == null) {
+                    continue;
+                }
+                // Nom interne d'abord ("TITLE_AND_BODY"), puis nom affiché normalisé ("Title and body")
+                String displayName = layout.getLayoutProperties().getDisplayName();
+                if (displayName != null) {
+                    layouts.putIfAbsent(displayName.trim().toUpperCase(Locale.ROOT).replace(' ', '_'), layout.getObjectId());
+                }
+                String name = layout.getLayoutProperties().getName();
+                if (name != null) {
+                    layouts.put(name, layout.getObjectId());
+                }
+            }
+        }
+        return Collections.unmodifiableMap(layouts);
+    }
+
+    /* Retourne la taille des pages du modèle, que ses copies conservent (null si elle n'est pas donnée).*/
+    public Size getPageSize(Slides slidesService) throws IOException {
+        return read(slidesService).getPageSize();
+    }
+
+    /* Lit le modèle une fois par processus, avec un masque limité à la taille des pages et aux mises en page.*/
+    private Presentation read(Slides slidesService) throws IOException {
+        Presentation cached = TEMPLATE_CACHE.get(templateId);
+        if (cached != null) {
+            return cached;
+        }
+        Presentation template = slidesService.presentations().get(templateId)
+            .setFields("pageSize,layouts(objectId,layoutProperties(name,displayName))").execute();
+        TEMPLATE_CACHE.putIfAbsent(templateId, template);
+        System.out.println("Loaded " + (template.getLayouts() != null ? template.getLayouts().size() : 0)
+                + " layouts from template " + templateId);
+        return template;
+    }
+
+    /* Retourne les requêtes qui remplacent les jetons du modèle dans toute la présentation.*/
+    public List<Request> tokenRequests(String title) {
+        List<Request> requests = new ArrayList<>();
+        requests.add(replaceAllText(TITLE_TOKEN, title));
+        requests.add(replaceAllText(DATE_TOKEN, timestamp()));
+        return requests;
+    }
+
+    /* Crée une requête de remplacement d'un jeton.*/
+    private static Request replaceAllText(String token, String value) {
+        return new Request()
+            .setReplaceAllText(new ReplaceAllTextRequest()
+                .setContainsText(new SubstringMatchCriteria().setText(token).setMatchCase(true))
+                .setReplaceText(value));
+    }
+
+    /* Retourne l'horodatage utilisé dans les titres de présentation.*/
+    private static String timestamp() {
+        return new SimpleDateFormat("yyyy-MM-dd HH:mm").format(new Date());
+    }
+
+    /* Retourne l'identifiant de la présentation modèle.*/
+    public String getTemplateId() {
+        return templateId;
+    }
+}
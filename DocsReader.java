@@ -3,6 +3,7 @@ package com.myproject.gdocs2slides;
 import com.google.api.services.docs.v1.Docs;
 import com.google.api.services.docs.v1.model.*;
 import com.myproject.gdocs2slides.model.ContentElement;
+import com.myproject.gdocs2slides.model.TextStyleSpan;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -12,6 +13,10 @@ import java.util.Map;
 //La classe DocsReader extrait le contenu d'un document Google Docs et le convertit en une liste d'éléments de contenu structurés.
 public class DocsReader {
 
+    private static final int MAX_CELL_CHARS = 300;
+    private static final int MAX_TABLE_ROWS_PER_SLIDE = 12;
+    private static final int MAX_TABLE_CELLS_PER_SLIDE = 96;
+
     /**
      * Extrait tous les éléments de contenu (texte, images, tableaux) à partir d'un document Google Docs.
      * @param docsService le service Google Docs initialisé
@@ -19,15 +24,36 @@ public class DocsReader {
      * @return une liste d'éléments de contenu prêts à être utilisés
      */
     public static List<ContentElement> extractContent(Docs docsService, String documentId) throws IOException {
-        List<ContentElement> allElements = new ArrayList<>();
+        return extractContent(fetchDocument(docsService, documentId), documentId);
+    }
 
+    /**
+     * Récupère un document Google Docs (contenu des onglets inclus) sans l'analyser.
+     * @param docsService le service Google Docs initialisé
+     * @param documentId l'identifiant du document à récupérer
+     * @return le document brut renvoyé par l'API
+     */
+    public static Document fetchDocument(Docs docsService, String documentId) throws IOException {
         // Récupérer le document en incluant le contenu des onglets
         Document document = docsService.documents().get(documentId).setIncludeTabsContent(true).execute();
-        System.out.println("Réponse brute de l'API - Document: " + (document != null ? document.toString() : "null"));
 
         if (document == null) {
             throw new IOException("Le document est nul. Vérifiez l'ID du document: " + documentId);
         }
+        return document;
+    }
+
+    /**
+     * Extrait les éléments de contenu d'un document déjà récupéré.
+     * @param document le document brut renvoyé par l'API
+     * @param documentId l'identifiant du document, utilisé pour les messages
+     * @return une liste d'éléments de contenu prêts à être utilisés
+     */
+    public static List<ContentElement> extractContent(Document document, String documentId) throws IOException {
+        if (document == null) {
+            throw new IOException("Le document est nul. Vérifiez l'ID du document: " + documentId);
+        }
+        List<ContentElement> allElements = new ArrayList<>();
 
         // Traiter chaque onglet principal
         List<Tab> tabs = document.getTabs();
@@ -66,6 +92,8 @@ public class DocsReader {
         if (tabInlineObjects == null) {
             System.out.println("Aucun objet inline dans l'onglet: " + title);
         }
+        // Définitions des listes de l'onglet (type de puce par niveau d'imbrication)
+        Map<String, com.google.api.services.docs.v1.model.List> tabLists = documentTab.getLists();
 
         // Traiter le contenu de l'onglet (texte, images, tableaux)
         if (documentTab != null && documentTab.getBody() != null) {
@@ -73,7 +101,8 @@ public class DocsReader {
             if (bodyElements != null) {
                 double yPosition = 100.0; // Position Y initiale
                 for (StructuralElement element : bodyElements) {
-                    yPosition = processStructuralElement(element, tabInlineObjects, level + 1, elements, yPosition);
+                    yPosition = processStructuralElement(element, tabInlineObjects, tabLists, level + 1, elements,
+                            yPosition);
                 }
             }
         }
@@ -90,10 +119,10 @@ public class DocsReader {
     /**
      * Traite un élément structurel de type paragraphe, tableau ou saut de section.
      */
-    private static double processStructuralElement(StructuralElement element, Map<String, InlineObject> inlineObjects, int sectionLevel, List<ContentElement> elements, double yPosition) {
+    private static double processStructuralElement(StructuralElement element, Map<String, InlineObject> inlineObjects, Map<String, com.google.api.services.docs.v1.model.List> lists, int sectionLevel, List<ContentElement> elements, double yPosition) {
         // Vérifie et traite les différents types d'éléments structurels
         if (element.getParagraph() != null) {
-            yPosition = processParagraph(element.getParagraph(), inlineObjects, sectionLevel, elements, yPosition);
+            yPosition = processParagraph(element.getParagraph(), inlineObjects, lists, sectionLevel, elements, yPosition);
         } else if (element.getTable() != null) {
             yPosition = processTable(element.getTable(), sectionLevel, elements, yPosition);
         } else if (element.getSectionBreak() != null) {
@@ -104,15 +133,28 @@ public class DocsReader {
 
     /**
      * Analyse un paragraphe, extrait son texte et traite les images inline.
+     * Un paragraphe à puce devient un élément LIST_ITEM avec sa liste, son niveau d'imbrication et son type de puce.
      */
-    private static double processParagraph(Paragraph paragraph, Map<String, InlineObject> inlineObjects, int sectionLevel, List<ContentElement> elements, double yPosition) {
-        // Extraire le texte du paragraphe
-        String text = extractText(paragraph).trim();
+    private static double processParagraph(Paragraph paragraph, Map<String, InlineObject> inlineObjects, Map<String, com.google.api.services.docs.v1.model.List> lists, int sectionLevel, List<ContentElement> elements, double yPosition) {
+        // Extraire le texte du paragraphe et ses segments stylés
+        List<TextStyleSpan> spans = new ArrayList<>();
+        String rawText = extractStyledText(paragraph, spans);
+        String text = rawText.trim();
         if (!text.isEmpty()) {
             // Déterminer le type (titre, sous-titre, texte normal)
             ContentElement.ElementType type = determineParagraphType(paragraph);
             ContentElement element = new ContentElement(type, text);
             element.setSectionLevel(sectionLevel);
+            if (type == ContentElement.ElementType.PARAGRAPH && paragraph.getBullet() != null) {
+                applyBullet(element, paragraph.getBullet(), lists);
+            }
+            // Recaler les segments sur le texte sans les espaces de début et de fin
+            int leading = 0;
+            while (rawText.charAt(leading) <= ' ') {
+                leading++;
+            }
+            element.setStyleSpans(TextStyleSpan.coalesce(
+                    TextStyleSpan.slice(spans, leading, leading + text.length()), text));
             elements.add(element);
             System.out.println("Paragraphe ajouté au niveau " + sectionLevel + ": " + text);
             yPosition += 20.0; // Ajustement de la hauteur pour espacement vertical
@@ -129,36 +171,191 @@ public class DocsReader {
     }
 
     /**
-     * Extrait les données d'un tableau ligne par ligne, cellule par cellule.
+     * Extrait les données d'un tableau ligne par ligne, en le découpant en fenêtres de lignes qui tiennent sur une diapositive.
+     * Chaque fenêtre devient un élément TABLE distinct et répète la ligne d'en-tête du tableau d'origine.
      */
     private static double processTable(Table table, int sectionLevel, List<ContentElement> elements, double yPosition) {
-        // Créer un élément de contenu pour représenter le tableau
-        ContentElement tableElement = new ContentElement(ContentElement.ElementType.TABLE);
-        tableElement.setSectionLevel(sectionLevel);
+        List<TableRow> tableRows = table.getTableRows();
+        if (tableRows == null || tableRows.isEmpty()) {
+            return yPosition;
+        }
 
-        // Parcourir chaque ligne du tableau
-        for (TableRow row : table.getTableRows()) {
-            List<String> rowData = new ArrayList<>();
-            for (TableCell cell : row.getTableCells()) {
-                rowData.add(extractCellContent(cell)); // Ajouter contenu cellule à la ligne
+        // Nombre de colonnes de référence : les lignes incomplètes (cellules fusionnées) sont complétées
+        int columns = table.getColumns() != null ? table.getColumns() : 0;
+        for (TableRow row : tableRows) {
+            if (row.getTableCells() != null) {
+                columns = Math.max(columns, row.getTableCells().size());
             }
-            tableElement.addTableRow(rowData);
         }
+        if (columns == 0) {
+            return yPosition;
+        }
+        // Un tableau trop large pour deux lignes sous le plafond de cellules est aussi découpé en bandes de colonnes
+        int columnsPerWindow = Math.min(columns, MAX_TABLE_CELLS_PER_SLIDE / 2);
+        int bands = (columns + columnsPerWindow - 1) / columnsPerWindow;
+        int rowsPerWindow = Math.max(2, Math.min(MAX_TABLE_ROWS_PER_SLIDE, MAX_TABLE_CELLS_PER_SLIDE / columnsPerWindow));
+
+        List<String> headerRow = null;   // Première ligne, répétée dans les fenêtres suivantes si c'est un en-tête
+        ContentElement[] windows = new ContentElement[bands];
+        int windowCount = 0;
+        int totalRows = 0;
+
+        // Parcourir les lignes une à une sans conserver le tableau complet
+        for (TableRow row : tableRows) {
+            List<String> rowData = extractRow(row, columns);
+            totalRows++;
+            if (totalRows == 1 && isHeaderRow(row)) {
+                headerRow = rowData;
+            }
+            if (windows[0] != null && windows[0].getRows() >= rowsPerWindow) {
+                windowCount += flushWindows(windows, elements);
+            }
+            for (int band = 0; band < bands; band++) {
+                int from = band * columnsPerWindow;
+                int to = Math.min(columns, from + columnsPerWindow);
+                if (windows[band] == null) {
+                    windows[band] = new ContentElement(ContentElement.ElementType.TABLE);
+                    windows[band].setSectionLevel(sectionLevel);
+                    // Répéter l'en-tête en tête de chaque fenêtre de continuation
+                    if (headerRow != null && rowData != headerRow) {
+                        windows[band].addTableRow(columnBand(headerRow, from, to));
+                    }
+                }
+                windows[band].addTableRow(columnBand(rowData, from, to));
+            }
+        }
+        windowCount += flushWindows(windows, elements);
 
-        elements.add(tableElement);
-        System.out.println("Tableau ajouté au niveau " + sectionLevel + ": " + tableElement.getRows() + "x" + tableElement.getColumns());
-        yPosition += tableElement.getRows() * 30.0; // Estimation de la hauteur verticale
+        System.out.println("Tableau ajouté au niveau " + sectionLevel + ": " + totalRows + "x" + columns
+                + " (" + windowCount + " fenêtre(s) de " + rowsPerWindow + " lignes et " + columnsPerWindow
+                + " colonnes max)");
+        yPosition += totalRows * 30.0; // Estimation de la hauteur verticale
         return yPosition;
     }
 
+    /**
+     * Ajoute aux éléments les fenêtres en cours de chaque bande de colonnes, dans l'ordre des colonnes, et retourne leur nombre.
+     */
+    private static int flushWindows(ContentElement[] windows, List<ContentElement> elements) {
+        int count = 0;
+        for (int band = 0; band < windows.length; band++) {
+            if (windows[band] != null) {
+                elements.add(windows[band]);
+                windows[band] = null;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Retourne les cellules d'une ligne comprises entre deux colonnes, ou la ligne elle-même si elle est entière.
+     */
+    private static List<String> columnBand(List<String> row, int from, int to) {
+        return from == 0 && to == row.size() ? row : new ArrayList<>(row.subList(from, to));
+    }
+
+    /**
+     * Indique si une ligne est un en-tête : marquée comme telle dans le document, ou dont tout le texte est en gras.
+     */
+    private static boolean isHeaderRow(TableRow row) {
+        if (row.getTableRowStyle() != null && Boolean.TRUE.equals(row.getTableRowStyle().getTableHeader())) {
+            return true;
+        }
+        boolean hasText = false;
+        if (row.getTableCells() != null) {
+            for (TableCell cell : row.getTableCells()) {
+                if (cell.getContent() == null) {
+                    continue;
+                }
+                for (StructuralElement se : cell.getContent()) {
+                    if (se.getParagraph() == null || se.getParagraph().getElements() == null) {
+                        continue;
+                    }
+                    for (ParagraphElement pe : se.getParagraph().getElements()) {
+                        TextRun run = pe.getTextRun();
+                        if (run == null || run.getContent() == null || run.getContent().isBlank()) {
+                            continue;
+                        }
+                        if (run.getTextStyle() == null || !Boolean.TRUE.equals(run.getTextStyle().getBold())) {
+                            return false;
+                        }
+                        hasText = true;
+                    }
+                }
+            }
+        }
+        return hasText;
+    }
+
+    /**
+     * Transforme un élément en LIST_ITEM à partir de la puce du paragraphe et de la définition de sa liste.
+     */
+    private static void applyBullet(ContentElement element, Bullet bullet, Map<String, com.google.api.services.docs.v1.model.List> lists) {
+        int level = bullet.getNestingLevel() != null ? bullet.getNestingLevel() : 0;
+        element.setType(ContentElement.ElementType.LIST_ITEM);
+        element.setListId(bullet.getListId());
+        element.setListLevel(level);
+
+        // Type de puce du niveau : type ordonné (DECIMAL, ALPHA...) ou, pour une liste non ordonnée, son symbole
+        com.google.api.services.docs.v1.model.List list = lists != null ? lists.get(bullet.getListId()) : null;
+        if (list != null && list.getListProperties() != null && list.getListProperties().getNestingLevels() != null
+                && level < list.getListProperties().getNestingLevels().size()) {
+            NestingLevel nestingLevel = list.getListProperties().getNestingLevels().get(level);
+            String glyphType = nestingLevel.getGlyphType();
+            element.setListGlyph(glyphType != null && !"GLYPH_TYPE_UNSPECIFIED".equals(glyphType) && !"NONE".equals(glyphType)
+                    ? glyphType : nestingLevel.getGlyphSymbol());
+        }
+    }
+
+    /**
+     * Extrait le contenu d'une ligne de tableau, complété par des cellules vides jusqu'au nombre de colonnes.
+     */
+    private static List<String> extractRow(TableRow row, int columns) {
+        List<String> rowData = new ArrayList<>(columns);
+        if (row.getTableCells() != null) {
+            for (TableCell cell : row.getTableCells()) {
+                if (rowData.size() == columns) {
+                    break;
+                }
+                rowData.add(extractCellContent(cell)); // Ajouter contenu cellule à la ligne
+            }
+        }
+        while (rowData.size() < columns) {
+            rowData.add("");
+        }
+        return rowData;
+    }
+
     /**
      * Extrait tout le texte d'un paragraphe en concaténant les segments.
      */
     private static String extractText(Paragraph paragraph) {
+        return extractStyledText(paragraph, null);
+    }
+
+    /**
+     * Extrait le texte d'un paragraphe et, si {@code spans} n'est pas nul, y ajoute un segment par TextRun stylé.
+     * Les TextRun sans style ne produisent aucun segment.
+     */
+    private static String extractStyledText(Paragraph paragraph, List<TextStyleSpan> spans) {
         StringBuilder text = new StringBuilder();
         for (ParagraphElement pe : paragraph.getElements()) {
             if (pe.getTextRun() != null && pe.getTextRun().getContent() != null) {
-                text.append(pe.getTextRun().getContent());
+                String content = pe.getTextRun().getContent();
+                TextStyle style = pe.getTextRun().getTextStyle();
+                if (spans != null && style != null) {
+                    TextStyleSpan span = new TextStyleSpan(text.length(), content.length(),
+                            Boolean.TRUE.equals(style.getBold()),
+                            Boolean.TRUE.equals(style.getItalic()),
+                            Boolean.TRUE.equals(style.getUnderline()),
+                            Boolean.TRUE.equals(style.getStrikethrough()),
+                            style.getLink() != null ? style.getLink().getUrl() : null);
+                    if (!span.isDefault()) {
+                        spans.add(span);
+                    }
+                }
+                text.append(content);
             }
         }
         return text.toString();
@@ -183,16 +380,44 @@ public class DocsReader {
     }
 
     /**
-     * Extrait et concatène le texte contenu dans une cellule de tableau.
+     * Extrait et concatène le texte contenu dans une cellule de tableau, séparé par " | " et tronqué à MAX_CELL_CHARS.
      */
     private static String extractCellContent(TableCell cell) {
         StringBuilder content = new StringBuilder();
+        if (cell.getContent() == null) {
+            return "";
+        }
         for (StructuralElement se : cell.getContent()) {
-            if (se.getParagraph() != null) {
-                content.append(extractText(se.getParagraph())).append(" | ");
+            if (se.getParagraph() == null) {
+                continue;
+            }
+            String text = extractText(se.getParagraph());
+            // Retirer le saut de ligne final du paragraphe sans expression régulière
+            int end = text.length();
+            while (end > 0 && Character.isWhitespace(text.charAt(end - 1))) {
+                end--;
+            }
+            if (end == 0) {
+                continue;
+            }
+            if (content.length() > 0) {
+                content.append(" | ");
             }
+            content.append(text, 0, end);
+            if (content.length() >= MAX_CELL_CHARS) {
+                break;
+            }
+        }
+        if (content.length() > MAX_CELL_CHARS) {
+            // Couper avant une paire de substitution plutôt qu'en son milieu
+            int cut = MAX_CELL_CHARS - 1;
+            if (Character.isHighSurrogate(content.charAt(cut - 1))) {
+                cut--;
+            }
+            content.setLength(cut);
+            content.append('…');
         }
-        return content.toString().replaceAll(" \\| $", "");
+        return content.toString();
     }
 
     /**
@@ -224,15 +449,14 @@ public class DocsReader {
         }
 
         String imageUrl = embeddedObject.getImageProperties().getContentUri();
-        Size size = embeddedObject.getSize();
-        if (size == null) {
-            System.err.println("Avertissement : taille de l'image non disponible ID : " + inlineObjectId);
-            return yPosition;
+        // Taille en points ; si elle est absente, l'image est gardée et ses dimensions sont lues à l'écriture
+        double width = toPoints(embeddedObject.getSize() != null ? embeddedObject.getSize().getWidth() : null);
+        double height = toPoints(embeddedObject.getSize() != null ? embeddedObject.getSize().getHeight() : null);
+        if (width == 0 || height == 0) {
+            System.out.println("Taille de l'image non disponible, elle sera lue depuis son en-tête ID : " + inlineObjectId);
+            width = 0;
+            height = 0;
         }
-
-        // Convertir la taille en points
-        double width = size.getWidth().getMagnitude() * 72.0 / 1_000_000.0;
-        double height = size.getHeight().getMagnitude() * 72.0 / 1_000_000.0;
         double xPosition = 50.0; // Position horizontale fixe
 
         // Créer l'objet image avec position et taille
@@ -245,6 +469,16 @@ public class DocsReader {
         return yPosition;
     }
 
+    /**
+     * Convertit une dimension du document en points (les dimensions sont en PT, ou en EMU à raison de 12 700 EMU par point).
+     */
+    private static double toPoints(Dimension dimension) {
+        if (dimension == null || dimension.getMagnitude() == null) {
+            return 0;
+        }
+        return "EMU".equals(dimension.getUnit()) ? dimension.getMagnitude() / 12_700.0 : dimension.getMagnitude();
+    }
+
     /**
      * Ajoute une section par défaut si aucun autre contenu n'a été extrait du document.
      */
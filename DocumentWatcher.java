@@ -0,0 +1,340 @@
+package com.myproject.gdocs2slides;
+
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.services.docs.v1.Docs;
+import com.google.api.services.slides.v1.Slides;
+import com.myproject.gdocs2slides.model.ContentElement;
+import com.myproject.gdocs2slides.model.TextStyleSpan;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/* La classe DocumentWatcher garde un ensemble de Google Docs synchronisés avec leurs présentations :
+ *  elle interroge uniquement le champ revisionId de chaque document à intervalle aléatoirisé, attend la fin
+ *  d'une rafale de modifications, puis réécrit la présentation du document via un pool de conversion borné.
+ *  Chaque synchronisation est une reconstruction complète : les nouvelles diapositives sont créées, puis les anciennes
+ *  supprimées dans les derniers lots. Le fichier d'état conserve pour chaque document sa présentation, la dernière
+ *  révision synchronisée et l'empreinte de son contenu : après un redémarrage, les mêmes présentations sont reprises
+ *  et les documents inchangés ne sont pas reconstruits.
+ */
+public class DocumentWatcher implements AutoCloseable {
+
+    public static final long DEFAULT_POLL_INTERVAL_MILLIS = 60_000;
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 15_000;
+    public static final int DEFAULT_WORKERS = 4;
+    public static final String DEFAULT_STATE_FILE = "watch-state.properties";
+    static final double JITTER = 0.2; // ±20 % autour de l'intervalle pour étaler les interrogations
+    private static final String REVISION_SUFFIX = ".revision";
+    private static final String FINGERPRINT_SUFFIX = ".fingerprint";
+
+    private final Docs docsService;
+    private final Slides slidesService;
+    private final ConversionProfile profile;
+    private final long pollIntervalMillis;
+    private final long debounceMillis;
+    private final ScheduledExecutorService poller;
+    private final ExecutorService converters;
+    private final Map<String, WatchedDocument> documents = new ConcurrentHashMap<>();
+    private final Path stateFile;        // Fichier d'état des documents synchronisés, null pour ne rien conserver
+    private final Properties state;      // docId = présentation, docId.revision et docId.fingerprint (Base64)
+
+    /* État de synchronisation d'un document surveillé.*/
+    static final class WatchedDocument {
+        private final String documentId;
+        private String observedRevision;   // Dernière révision vue par l'interrogation
+        private String syncedRevision;     // Révision de la dernière synchronisation réussie
+        private long lastChangeAt;         // Instant où la révision observée a changé pour la dernière fois
+        private boolean syncing;
+        private String presentationId;
+        private byte[] contentFingerprint; // Empreinte du contenu extrait lors de la dernière synchronisation
+
+        private WatchedDocument(String documentId) {
+            this.documentId = documentId;
+        }
+    }
+
+    /* Construit un observateur avec les intervalles et le nombre de conversions simultanées spécifiés,
+     * sans fichier d'état.*/
+    public DocumentWatcher(Docs docsService, Slides slidesService, ConversionProfile profile,
+                           long pollIntervalMillis, long debounceMillis, int workers) throws IOException {
+        this(docsService, slidesService, profile, pollIntervalMillis, debounceMillis, workers, null);
+    }
+
+    /* Construit un observateur qui lit et met à jour le fichier d'état donné (créé s'il n'existe pas).*/
+    public DocumentWatcher(Docs docsService, Slides slidesService, ConversionProfile profile,
+                           long pollIntervalMillis, long debounceMillis, int workers, Path stateFile) throws IOException {
+        if (pollIntervalMillis < 1 || debounceMillis < 0 || workers < 1) {
+            throw new IllegalArgumentException("Invalid watch settings");
+        }
+        this.docsService = docsService;
+        this.slidesService = slidesService;
+        this.profile = profile;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.debounceMillis = debounceMillis;
+        this.poller = Executors.newScheduledThreadPool(2);
+        this.converters = Executors.newFixedThreadPool(workers);
+        this.stateFile = stateFile;
+        this.state = new Properties();
+        if (stateFile != null && Files.exists(stateFile)) {
+            try (Reader reader = Files.newBufferedReader(stateFile, StandardCharsets.UTF_8)) {
+                state.load(reader);
+            }
+        }
+    }
+
+    /* Commence à surveiller un document ; sa première synchronisation réécrit la présentation connue dans le fichier
+     * d'état, ou en crée une.*/
+    public void watch(String documentId) {
+        watch(documentId, null);
+    }
+
+    /* Commence à surveiller un document synchronisé avec la présentation donnée ; si elle est nulle, celle du fichier
+     * d'état est reprise, ou une présentation est créée à la première synchronisation. Avec la présentation du fichier
+     * d'état, sa révision synchronisée et son empreinte sont aussi reprises.*/
+    public void watch(String documentId, String presentationId) {
+        WatchedDocument document = new WatchedDocument(documentId);
+        synchronized (this) {
+            String storedPresentationId = state.getProperty(documentId);
+            document.presentationId = presentationId != null ? presentationId : storedPresentationId;
+            if (storedPresentationId != null && storedPresentationId.equals(document.presentationId)) {
+                document.syncedRevision = state.getProperty(documentId + REVISION_SUFFIX);
+                String storedFingerprint = state.getProperty(documentId + FINGERPRINT_SUFFIX);
+                document.contentFingerprint = storedFingerprint == null ? null
+                        : Base64.getDecoder().decode(storedFingerprint);
+            }
+        }
+        if (documents.putIfAbsent(documentId, document) == null) {
+            // Premier passage étalé sur un intervalle pour ne pas interroger tous les documents en même temps
+            schedulePoll(document, ThreadLocalRandom.current().nextLong(Math.max(1, pollIntervalMillis)));
+        }
+    }
+
+    /* Commence à surveiller plusieurs documents.*/
+    public void watchAll(List<String> documentIds) {
+        for (String documentId : documentIds) {
+            watch(documentId);
+        }
+    }
+
+    /* Retourne l'état d'un document surveillé, ou null.*/
+    WatchedDocument getWatched(String documentId) {
+        return documents.get(documentId);
+    }
+
+    /* Retourne l'URL de la présentation synchronisée d'un document, ou null si elle n'existe pas encore.*/
+    public String getPresentationUrl(String documentId) {
+        WatchedDocument document = documents.get(documentId);
+        synchronized (this) {
+            return document == null || document.presentationId == null
+                    ? null : SlidesWriter.presentationUrl(document.presentationId);
+        }
+    }
+
+    /* Arrête les interrogations et les conversions en cours.*/
+    @Override
+    public void close() {
+        poller.shutdownNow();
+        converters.shutdownNow();
+    }
+
+    /* Planifie la prochaine interrogation d'un document après le délai donné.*/
+    private void schedulePoll(WatchedDocument document, long delayMillis) {
+        if (!poller.isShutdown()) {
+            poller.schedule(() -> poll(document), delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /* Interroge la révision d'un document et déclenche sa synchronisation une fois la rafale de modifications terminée.*/
+    private void poll(WatchedDocument document) {
+        long nextDelay = jittered(pollIntervalMillis);
+        try {
+            // Seul le champ revisionId est demandé : la réponse reste minuscule quelle que soit la taille du document
+            String revision = docsService.documents().get(document.documentId)
+                .setFields("revisionId").execute().getRevisionId();
+            synchronized (this) {
+                long wait = observe(document, revision, System.currentTimeMillis());
+                if (wait == 0) {
+                    document.syncing = true;
+                    String targetRevision = document.observedRevision;
+                    converters.submit(() -> sync(document, targetRevision));
+                } else if (wait > 0) {
+                    // Modification récente : revenir juste après la fin de la période d'attente
+                    nextDelay = Math.min(nextDelay, jittered(wait));
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to poll revision of document: " + document.documentId);
+            e.printStackTrace();
+        } finally {
+            schedulePoll(document, nextDelay);
+        }
+    }
+
+    /**
+     * Enregistre la révision observée d'un document à l'instant donné.
+     * @return 0 si le document doit être synchronisé maintenant, le temps restant avant la fin de la période d'attente
+     *         si sa dernière modification est trop récente, ou -1 s'il n'y a rien à synchroniser
+     */
+    synchronized long observe(WatchedDocument document, String revision, long now) {
+        if (revision != null && !revision.equals(document.observedRevision)) {
+            document.observedRevision = revision;
+            document.lastChangeAt = now;
+        }
+        boolean changed = document.observedRevision != null
+                && !document.observedRevision.equals(document.syncedRevision);
+        if (!changed || document.syncing) {
+            return -1;
+        }
+        long quietFor = now - document.lastChangeAt;
+        return quietFor >= debounceMillis ? 0 : debounceMillis - quietFor;
+    }
+
+    /* Synchronise la présentation d'un document avec la révision donnée, en sautant la réécriture si le contenu est inchangé.*/
+    void sync(WatchedDocument document, String targetRevision) {
+        try {
+            List<ContentElement> content = DocsReader.extractContent(docsService, document.documentId);
+            byte[] fingerprint = fingerprint(content);
+            String presentationId;
+            synchronized (this) {
+                presentationId = document.presentationId;
+            }
+
+            if (presentationId != null && Arrays.equals(fingerprint, document.contentFingerprint)) {
+                // La révision a changé sans effet sur le contenu converti (commentaires, mise en forme ignorée...)
+                System.out.println("Document " + document.documentId + " unchanged at revision " + targetRevision);
+            } else {
+                presentationId = rebuild(document, presentationId, content);
+            }
+
+            synchronized (this) {
+                document.presentationId = presentationId;
+                document.contentFingerprint = fingerprint;
+                document.syncedRevision = targetRevision;
+                saveState(document);
+            }
+            System.out.println("Document " + document.documentId + " synced at revision " + targetRevision + ": "
+                    + SlidesWriter.presentationUrl(presentationId));
+        } catch (Exception e) {
+            // La révision reste non synchronisée : une nouvelle tentative aura lieu à la prochaine interrogation
+            System.err.println("Failed to sync document: " + document.documentId);
+            e.printStackTrace();
+        } finally {
+            synchronized (this) {
+                document.syncing = false;
+            }
+        }
+    }
+
+    /* Reconstruit entièrement la présentation d'un document, après l'avoir créée si elle n'existe pas (ou plus),
+     * et retourne son identifiant.*/
+    private String rebuild(WatchedDocument document, String presentationId, List<ContentElement> content)
+            throws IOException {
+        if (presentationId != null) {
+            try {
+                SlidesWriter.rewritePresentation(slidesService, presentationId, content, profile);
+                return presentationId;
+            } catch (GoogleJsonResponseException e) {
+                if (e.getStatusCode() != 404) {
+                    throw e;
+                }
+                System.err.println("Presentation " + presentationId + " of document " + document.documentId
+                        + " no longer exists, creating a new one");
+            }
+        }
+        presentationId = SlidesWriter.createPresentation(slidesService, "Converted Google Doc");
+        // La nouvelle présentation est enregistrée avant d'être remplie, sans révision ni empreinte : un échec
+        // de l'écriture ne laisse ni présentation orpheline ni présentation vide considérée comme à jour
+        synchronized (this) {
+            document.presentationId = presentationId;
+            document.syncedRevision = null;
+            document.contentFingerprint = null;
+            saveState(document);
+        }
+        SlidesWriter.rewritePresentation(slidesService, presentationId, content, profile);
+        return presentationId;
+    }
+
+    /* Enregistre l'état d'un document dans le fichier d'état, par remplacement atomique du fichier.*/
+    private synchronized void saveState(WatchedDocument document) throws IOException {
+        setOrRemove(document.documentId, document.presentationId);
+        setOrRemove(document.documentId + REVISION_SUFFIX, document.syncedRevision);
+        setOrRemove(document.documentId + FINGERPRINT_SUFFIX, document.contentFingerprint == null ? null
+                : Base64.getEncoder().encodeToString(document.contentFingerprint));
+        if (stateFile == null) {
+            return;
+        }
+        Path temporary = stateFile.resolveSibling(stateFile.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            state.store(writer, "Google Doc ID = presentation ID, with the synced revision and content fingerprint");
+        }
+        Files.move(temporary, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /* Écrit une valeur du fichier d'état, ou la retire si elle est nulle.*/
+    private void setOrRemove(String key, String value) {
+        if (value == null) {
+            state.remove(key);
+        } else {
+            state.setProperty(key, value);
+        }
+    }
+
+    /* Retourne un délai aléatoirisé autour de la valeur donnée.*/
+    static long jittered(long millis) {
+        double factor = 1.0 + ThreadLocalRandom.current().nextDouble(-JITTER, JITTER);
+        return Math.max(1, (long) (millis * factor));
+    }
+
+    /* Calcule une empreinte SHA-256 du contenu extrait (types, textes, styles, listes, images et tableaux).*/
+    static byte[] fingerprint(List<ContentElement> content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (ContentElement element : content) {
+                digest.update(element.getType().name().getBytes(StandardCharsets.UTF_8));
+                update(digest, element.getText());
+                update(digest, element.getImageUrl());
+                update(digest, element.getListId() + ":" + element.getListLevel() + ":" + element.getListGlyph());
+                for (TextStyleSpan span : element.getStyleSpans()) {
+                    update(digest, span.getOffset() + ":" + span.getLength() + ":" + span.isBold() + span.isItalic()
+                            + span.isUnderline() + span.isStrikethrough() + ":" + span.getLinkUrl());
+                }
+                for (List<String> row : element.getTableData()) {
+                    for (String cell : row) {
+                        update(digest, cell);
+                    }
+                    digest.update((byte) '\n');
+                }
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /* Ajoute une valeur à l'empreinte, précédée d'un séparateur pour distinguer les valeurs vides et absentes.*/
+    private static void update(MessageDigest digest, String value) {
+        digest.update((byte) (value == null ? 0 : 1));
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.myproject.gdocs2slides;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestFactory;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.http.json.JsonHttpContent;
+import com.google.api.client.json.GenericJson;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+
+import java.io.IOException;
+import java.util.Map;
+
+/* La classe DrivePresentationCopier copie une présentation par l'appel files.copy de l'API REST Drive v3,
+ *  envoyé avec la fabrique de requêtes (et donc les identifiants) d'un service déjà authentifié.
+ */
+public class DrivePresentationCopier implements PresentationCopier {
+
+    private static final String DRIVE_FILES_URL = "https://www.googleapis.com/drive/v3/files/";
+    private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
+
+    private final HttpRequestFactory requestFactory;
+
+    /* Construit un copieur qui utilise la fabrique de requêtes donnée.*/
+    public DrivePresentationCopier(HttpRequestFactory requestFactory) {
+        this.requestFactory = requestFactory;
+    }
+
+    @Override
+    public String copy(String templateId, String title) throws IOException {
+        GenericUrl url = new GenericUrl(DRIVE_FILES_URL + templateId + "/copy");
+        url.put("fields", "id");
+        url.put("supportsAllDrives", true);
+        HttpRequest request = requestFactory.buildPostRequest(url,
+                new JsonHttpContent(JSON_FACTORY, Map.of("name", title)));
+        request.setParser(JSON_FACTORY.createJsonObjectParser());
+        try {
+            GenericJson copy = request.execute().parseAs(GenericJson.class);
+            return (String) copy.get("id");
+        } catch (HttpResponseException e) {
+            // Un HttpRequest brut lève HttpResponseException, et non l'exception JSON des clients générés
+            if (e.getStatusCode() == 403) {
+                // Modèle inaccessible au compte, ou jeton des modèles autorisé sans les portées Drive
+                System.err.println("Drive copy refused; check that the account can read the template, or delete the "
+                        + "'user-templates' token in the tokens directory to grant the Drive scopes again");
+            }
+            throw e;
+        }
+    }
+}
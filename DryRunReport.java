@@ -0,0 +1,88 @@
+package com.myproject.gdocs2slides;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+/* La classe DryRunReport résume une exécution à blanc : diapositives, requêtes par type, taille des payloads
+ *  et appels API projetés, ainsi que l'emplacement du plan de requêtes écrit sur disque.
+ */
+public class DryRunReport {
+
+    private final Path planFile;
+    private int slideCount;
+    private int batchCount;
+    private int requestCount;
+    private long payloadBytes;
+    private int readCount;    // Lectures de la présentation nécessaires à l'écriture (zones de notes)
+    private final Map<String, Integer> requestsByType = new TreeMap<>();
+
+    /* Construit un rapport vide pour le fichier de plan donné.*/
+    public DryRunReport(Path planFile) {
+        this.planFile = planFile;
+    }
+
+    /* Enregistre une diapositive planifiée.*/
+    void recordSlide() {
+        slideCount++;
+    }
+
+    /* Enregistre un batchUpdate planifié, tel que découpé par l'AdaptiveBatcher.*/
+    void recordBatch(int requests, long bytes) {
+        batchCount++;
+        requestCount += requests;
+        payloadBytes += bytes;
+    }
+
+    /* Enregistre une lecture de la présentation (zones de notes de l'orateur).*/
+    void recordRead() {
+        readCount++;
+    }
+
+    /* Comptabilise une requête de type donné (createSlide, insertText...).*/
+    void recordRequestType(String type) {
+        requestsByType.merge(type, 1, Integer::sum);
+    }
+
+    /* Retourne le fichier contenant le plan de requêtes.*/
+    public Path getPlanFile() {
+        return planFile;
+    }
+
+    /* Retourne le nombre de diapositives planifiées.*/
+    public int getSlideCount() {
+        return slideCount;
+    }
+
+    /* Retourne le nombre de batchUpdate planifiés.*/
+    public int getBatchCount() {
+        return batchCount;
+    }
+
+    /* Retourne le nombre total de requêtes planifiées.*/
+    public int getRequestCount() {
+        return requestCount;
+    }
+
+    /* Retourne la taille totale des payloads JSON, en octets.*/
+    public long getPayloadBytes() {
+        return payloadBytes;
+    }
+
+    /* Retourne le nombre de requêtes par type, trié par nom.*/
+    public Map<String, Integer> getRequestsByType() {
+        return requestsByType;
+    }
+
+    /* Retourne le nombre d'appels API projeté : création de la présentation, un appel par batchUpdate et les lectures.*/
+    public int getProjectedApiCalls() {
+        return 1 + batchCount + readCount;
+    }
+
+    @Override
+    public String toString() {
+        return slideCount + " slides, " + batchCount + " batchUpdate calls, " + requestCount + " requests "
+                + requestsByType + ", " + payloadBytes + " payload bytes, " + getProjectedApiCalls()
+                + " projected API calls -> " + planFile;
+    }
+}
@@ -0,0 +1,141 @@
+package com.myproject.gdocs2slides;
+
+import com.google.api.client.json.GenericJson;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.services.slides.v1.model.BatchUpdatePresentationRequest;
+import com.google.api.services.slides.v1.model.Request;
+import com.myproject.gdocs2slides.model.ContentElement;
+import com.myproject.gdocs2slides.model.PlannedSlide;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/* La classe DryRunWriter exécute la planification complète d'une conversion sans appeler l'API Slides
+ *  et écrit les BatchUpdatePresentationRequest ordonnés sur disque (JSON ou NDJSON) avec leurs statistiques.
+ */
+public class DryRunWriter {
+
+    private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
+
+    /**
+     * Planifie la conversion et écrit le plan de requêtes dans {@code output}, les statistiques dans {@code output.stats.json}.
+     * @param title le titre de la présentation qui serait créée
+     * @param contentElements les éléments de contenu extraits du document
+     * @param profile le profil de conversion
+     * @param output le fichier de sortie du plan
+     * @param ndjson true pour un payload par ligne, false pour un tableau JSON unique
+     * @return le rapport de l'exécution à blanc
+     */
+    public static DryRunReport write(String title, List<ContentElement> contentElements, ConversionProfile profile,
+                                     Path output, boolean ndjson) throws IOException {
+        if (contentElements == null || contentElements.isEmpty()) {
+            throw new IllegalArgumentException("Content elements cannot be null or empty");
+        }
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+
+        DryRunReport report = new DryRunReport(output);
+        List<PlannedSlide> plannedSlides = SlidePlanner.plan(contentElements, profile);
+        // Identifiants séquentiels pour que deux exécutions à blanc produisent le même plan
+        SlideRequestBuilder requestBuilder = new SlideRequestBuilder(profile, true);
+
+        // Les diapositives sont découpées en lots comme à l'envoi réel ; chaque lot est sérialisé puis écrit
+        // immédiatement, sans garder le plan complet en mémoire
+        try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            PlanWriter planWriter = new PlanWriter(writer, ndjson, report);
+            AdaptiveBatcher.Session batches = AdaptiveBatcher.getDefault().plan(planWriter);
+            if (!ndjson) {
+                writer.write("[\n");
+            }
+            List<Request> notesRequests = new ArrayList<>();
+            for (PlannedSlide plannedSlide : plannedSlides) {
+                List<Request> requests = requestBuilder.buildSlide(plannedSlide);
+                if (plannedSlide.getSpeakerNotes() != null) {
+                    // La zone de notes n'est connue qu'à l'écriture : un identifiant de substitution la désigne
+                    notesRequests.add(SlideRequestBuilder.speakerNotesRequest(
+                            SlideRequestBuilder.slideIdOf(requests) + "_notes", plannedSlide.getSpeakerNotes()));
+                }
+                report.recordSlide();
+                batches.add(requests);
+            }
+            batches.flush();
+            if (!notesRequests.isEmpty()) {
+                // Notes de l'orateur : une lecture des zones de notes puis leurs lots, après les diapositives
+                report.recordRead();
+                batches.add(notesRequests);
+                batches.flush();
+            }
+            if (!ndjson) {
+                writer.write("\n]\n");
+            }
+        }
+
+        // Écriture des statistiques à côté du plan
+        GenericJson stats = new GenericJson();
+        stats.setFactory(JSON_FACTORY);
+        stats.set("title", title);
+        stats.set("profile", profile.getName());
+        stats.set("slideCount", report.getSlideCount());
+        stats.set("batchCount", report.getBatchCount());
+        stats.set("requestCount", report.getRequestCount());
+        stats.set("requestsByType", report.getRequestsByType());
+        stats.set("payloadBytes", report.getPayloadBytes());
+        stats.set("projectedApiCalls", report.getProjectedApiCalls());
+        Files.writeString(statsFile(output), stats.toPrettyString() + "\n", StandardCharsets.UTF_8);
+
+        System.out.println("Dry run: " + report);
+        return report;
+    }
+
+    /* Écrit chaque lot planifié dans le fichier de plan et le comptabilise dans le rapport.*/
+    private static final class PlanWriter implements AdaptiveBatcher.BatchSink {
+        private final BufferedWriter writer;
+        private final boolean ndjson;
+        private final DryRunReport report;
+        private boolean first = true;
+
+        private PlanWriter(BufferedWriter writer, boolean ndjson, DryRunReport report) {
+            this.writer = writer;
+            this.ndjson = ndjson;
+            this.report = report;
+        }
+
+        @Override
+        public void accept(List<Request> batch) throws IOException {
+            String payload = JSON_FACTORY.toString(new BatchUpdatePresentationRequest().setRequests(batch));
+            for (Request request : batch) {
+                report.recordRequestType(requestType(request));
+            }
+            report.recordBatch(batch.size(), payload.getBytes(StandardCharsets.UTF_8).length);
+            if (!ndjson && !first) {
+                writer.write(",\n");
+            }
+            writer.write(payload);
+            if (ndjson) {
+                writer.write("\n");
+            }
+            first = false;
+        }
+    }
+
+    /* Retourne le fichier de statistiques associé à un fichier de plan.*/
+    public static Path statsFile(Path output) {
+        return Paths.get(output.toString() + ".stats.json");
+    }
+
+    /* Retourne le type d'une requête, c'est-à-dire le nom de son unique champ renseigné (createSlide, insertText...).*/
+    static String requestType(Request request) {
+        for (String key : request.keySet()) {
+            return key;
+        }
+        return "unknown";
+    }
+}
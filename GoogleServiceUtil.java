@@ -8,6 +8,7 @@ import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
 import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.gson.GsonFactory;
 import com.google.api.client.util.store.FileDataStoreFactory;
+import com.google.api.client.http.HttpRequestInitializer;
 import com.google.api.client.http.HttpTransport;
 import com.google.api.services.docs.v1.Docs;
 import com.google.api.services.slides.v1.Slides;
@@ -15,9 +16,13 @@ import com.google.api.services.docs.v1.DocsScopes;
 import com.google.api.services.slides.v1.SlidesScopes;
 import com.google.api.client.auth.oauth2.Credential;
 import com.google.api.client.auth.oauth2.TokenResponseException;
+import com.google.auth.http.HttpCredentialsAdapter;
+import com.google.auth.oauth2.ServiceAccountCredentials;
 
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.List;
@@ -30,11 +35,21 @@ public class GoogleServiceUtil {
     private static final String APPLICATION_NAME = "GDocs to Slides";
     private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
     private static final String TOKENS_DIRECTORY_PATH = "tokens";
+    private static final String DEFAULT_USER_ID = "user";
+    private static final String TEMPLATE_USER_ID = "user-templates";
 
     private static final List<String> SCOPES = Arrays.asList(
         DocsScopes.DOCUMENTS,
         SlidesScopes.PRESENTATIONS
     );
+    // Les portées Drive ne servent qu'à copier les présentations modèles (lecture du modèle, création de la copie) :
+    // elles sont demandées avec un jeton distinct, à la première utilisation d'un modèle seulement
+    private static final List<String> TEMPLATE_SCOPES = Arrays.asList(
+        DocsScopes.DOCUMENTS,
+        SlidesScopes.PRESENTATIONS,
+        "https://www.googleapis.com/auth/drive.readonly",
+        "https://www.googleapis.com/auth/drive.file"
+    );
     private static final String CREDENTIALS_FILE_PATH = "/credentials.json";
 
     /**
@@ -66,9 +81,66 @@ public class GoogleServiceUtil {
     }
 
     /**
-     * Récupère ou génère des informations d'authentification OAuth2 pour l'accès à l'API.
+     * Retourne une instance du service Slides dont les informations d'authentification couvrent aussi la copie
+     * de présentations modèles par Drive ; elles sont stockées sous une clé distincte de l'identité par défaut.
+     */
+    public static Slides getTemplateSlidesService() throws Exception {
+        HttpTransport httpTransport = GoogleNetHttpTransport.newTrustedTransport();
+        Credential credentials = getCredentials(httpTransport, TEMPLATE_USER_ID, TEMPLATE_SCOPES);
+        return new Slides.Builder(httpTransport, JSON_FACTORY, credentials)
+                .setApplicationName(APPLICATION_NAME)
+                .build();
+    }
+
+    /**
+     * Construit un service Docs authentifié par l'initialiseur de requêtes donné.
+     */
+    static Docs buildDocsService(HttpTransport httpTransport, HttpRequestInitializer initializer) {
+        return new Docs.Builder(httpTransport, JSON_FACTORY, initializer)
+                .setApplicationName(APPLICATION_NAME)
+                .build();
+    }
+
+    /**
+     * Construit un service Slides authentifié par l'initialiseur de requêtes donné.
+     */
+    static Slides buildSlidesService(HttpTransport httpTransport, HttpRequestInitializer initializer) {
+        return new Slides.Builder(httpTransport, JSON_FACTORY, initializer)
+                .setApplicationName(APPLICATION_NAME)
+                .build();
+    }
+
+    /**
+     * Charge les informations d'authentification d'un compte de service à partir de son fichier de clé JSON,
+     * sous la forme d'un initialiseur de requêtes qui ajoute le jeton d'accès et le rafraîchit sur un 401.
+     */
+    static HttpRequestInitializer getServiceAccountCredentials(Path keyFile) throws Exception {
+        try (InputStream in = Files.newInputStream(keyFile)) {
+            return new HttpCredentialsAdapter(ServiceAccountCredentials.fromStream(in).createScoped(SCOPES));
+        }
+    }
+
+    /**
+     * Récupère ou génère des informations d'authentification OAuth2 pour l'identité par défaut.
      */
     private static Credential getCredentials(final HttpTransport httpTransport) throws Exception {
+        return getCredentials(httpTransport, DEFAULT_USER_ID);
+    }
+
+    /**
+     * Récupère ou génère des informations d'authentification OAuth2 pour l'identité donnée,
+     * stockée sous cette clé dans le répertoire des jetons.
+     */
+    static Credential getCredentials(final HttpTransport httpTransport, String userId) throws Exception {
+        return getCredentials(httpTransport, userId, SCOPES);
+    }
+
+    /**
+     * Récupère ou génère des informations d'authentification OAuth2 pour l'identité donnée et les portées données,
+     * stockée sous cette clé dans le répertoire des jetons.
+     */
+    private static Credential getCredentials(final HttpTransport httpTransport, String userId, List<String> scopes)
+            throws Exception {
         // Chargement des secrets du client à partir du fichier de configuration
         InputStream in = GoogleServiceUtil.class.getResourceAsStream(CREDENTIALS_FILE_PATH);
         if (in == null) {
@@ -80,7 +152,7 @@ public class GoogleServiceUtil {
 
         // Configuration du flux d'autorisation OAuth2
         GoogleAuthorizationCodeFlow flow = new GoogleAuthorizationCodeFlow.Builder(
-                httpTransport, JSON_FACTORY, clientSecrets, SCOPES)
+                httpTransport, JSON_FACTORY, clientSecrets, scopes)
                 .setDataStoreFactory(new FileDataStoreFactory(Paths.get(TOKENS_DIRECTORY_PATH).toFile()))
                 .setAccessType("offline")
                 .build();
@@ -91,12 +163,12 @@ public class GoogleServiceUtil {
 
         try {
             // Tentative de chargement des informations d'authentification existantes
-            credential = flow.loadCredential("user");
+            credential = flow.loadCredential(userId);
             if (credential == null || !credential.refreshToken()) {
                 // Si aucun jeton valide n'est trouvé ou si le rafraîchissement échoue
                 System.out.println("No valid token found or refresh failed. Starting authorization process...");
-                credential = new AuthorizationCodeInstalledApp(flow, receiver).authorize("user");
-                System.out.println("Authorization successful. New token stored.");
+                credential = new AuthorizationCodeInstalledApp(flow, receiver).authorize(userId);
+                System.out.println("Authorization successful. New token stored for: " + userId);
             } else {
                 // Utilisation du jeton existant valide
                 System.out.println("Using existing valid token.");
@@ -106,9 +178,9 @@ public class GoogleServiceUtil {
             if (e.getDetails() != null && "invalid_grant".equals(e.getDetails().getError())) {
                 System.out.println("Token expired or revoked. Removing old token and re-authorizing...");
                 // Suppression du jeton invalide
-                flow.getCredentialDataStore().delete("user");
+                flow.getCredentialDataStore().delete(userId);
                 // Nouvelle autorisation
-                credential = new AuthorizationCodeInstalledApp(flow, receiver).authorize("user");
+                credential = new AuthorizationCodeInstalledApp(flow, receiver).authorize(userId);
                 System.out.println("Re-authorization successful. New token stored.");
             } else {
                 throw e; // Relance des autres erreurs de jeton
@@ -0,0 +1,227 @@
+package com.myproject.gdocs2slides;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestFactory;
+import com.google.api.client.http.HttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/* La classe ImageProbe lit les dimensions d'une image à partir de ses premiers octets seulement
+ *  (en-têtes PNG IHDR, JPEG SOF, GIF et WebP), par une lecture partielle (Range) interrompue dès que l'en-tête est trouvé.
+ *  Les dimensions des images les plus récemment utilisées sont mises en cache par URL ; le cache est borné car
+ *  les URL signées changent à chaque lecture du document, ce qui le ferait croître sans fin en surveillance continue.
+ */
+public class ImageProbe {
+
+    private static final int PROBE_BYTES = 8 * 1024;        // Premier bloc lu, suffisant pour PNG, GIF, WebP et la plupart des JPEG
+    private static final int MAX_PROBE_BYTES = 256 * 1024;  // Limite pour les JPEG dont le SOF suit de gros blocs EXIF
+    private static final int MAX_CACHED_IMAGES = 512;
+    private static final Dimensions UNKNOWN = new Dimensions(0, 0, "unknown");
+    // Cache LRU : l'ordre d'accès place les entrées les moins récemment utilisées en tête, retirées au-delà de la limite
+    private static final Map<String, Dimensions> CACHE = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Dimensions> eldest) {
+            return size() > MAX_CACHED_IMAGES;
+        }
+    };
+
+    private final HttpRequestFactory requestFactory;
+
+    /* Dimensions en pixels d'une image et son format.*/
+    public static final class Dimensions {
+        private final int width;
+        private final int height;
+        private final String format;
+
+        Dimensions(int width, int height, String format) {
+            this.width = width;
+            this.height = height;
+            this.format = format;
+        }
+
+        /* Retourne la largeur en pixels.*/
+        public int getWidth() {
+            return width;
+        }
+
+        /* Retourne la hauteur en pixels.*/
+        public int getHeight() {
+            return height;
+        }
+
+        /* Retourne le format de l'image (png, jpeg, gif, webp).*/
+        public String getFormat() {
+            return format;
+        }
+
+        @Override
+        public String toString() {
+            return format + " " + width + "x" + height;
+        }
+    }
+
+    /* Construit une sonde qui utilise la fabrique de requêtes donnée (et donc ses identifiants).*/
+    public ImageProbe(HttpRequestFactory requestFactory) {
+        this.requestFactory = requestFactory;
+    }
+
+    /**
+     * Retourne les dimensions de l'image à l'URL donnée, depuis le cache ou en lisant son en-tête.
+     * @return les dimensions, ou null si l'image est accessible mais que son format n'est pas reconnu
+     * @throws IOException si l'image n'est pas accessible
+     */
+    public Dimensions probe(String imageUrl) throws IOException {
+        Dimensions cached;
+        synchronized (CACHE) {
+            cached = CACHE.get(imageUrl);
+        }
+        if (cached != null) {
+            return cached == UNKNOWN ? null : cached;
+        }
+        Dimensions dimensions = read(imageUrl);
+        synchronized (CACHE) {
+            CACHE.put(imageUrl, dimensions != null ? dimensions : UNKNOWN);
+        }
+        System.out.println("Probed image: " + imageUrl + ", " + (dimensions != null ? dimensions : "unknown format"));
+        return dimensions;
+    }
+
+    /* Lit l'en-tête de l'image par blocs, jusqu'à trouver ses dimensions ou atteindre la limite de lecture.*/
+    private Dimensions read(String imageUrl) throws IOException {
+        HttpRequest request = requestFactory.buildGetRequest(new GenericUrl(imageUrl));
+        // La plage demandée est un plafond : la lecture s'arrête dès que l'en-tête est trouvé, et un serveur
+        // qui ignore l'en-tête Range ne transfère pas plus que ce qui est lu
+        request.getHeaders().setRange("bytes=0-" + (MAX_PROBE_BYTES - 1));
+        HttpResponse response = request.execute();
+        try (InputStream content = response.getContent()) {
+            byte[] data = new byte[PROBE_BYTES];
+            int length = 0;
+            while (length < MAX_PROBE_BYTES) {
+                if (length == data.length) {
+                    data = Arrays.copyOf(data, Math.min(MAX_PROBE_BYTES, data.length * 2));
+                }
+                int read = content.read(data, length, data.length - length);
+                if (read < 0) {
+                    break;
+                }
+                length += read;
+                Dimensions dimensions = parse(data, length);
+                if (dimensions != null || (length >= 16 && !hasKnownSignature(data))) {
+                    return dimensions;
+                }
+            }
+            return null;
+        } finally {
+            // Fermeture de la connexion sans lire le reste du corps
+            response.disconnect();
+        }
+    }
+
+    /* Extrait les dimensions des premiers octets d'une image, ou null si le format n'est pas reconnu ou l'en-tête incomplet.*/
+    static Dimensions parse(byte[] data, int length) {
+        // PNG : signature de 8 octets puis bloc IHDR (largeur et hauteur sur 4 octets, gros-boutiste)
+        if (length >= 24 && (data[0] & 0xFF) == 0x89 && data[1] == 'P' && data[2] == 'N' && data[3] == 'G'
+                && data[12] == 'I' && data[13] == 'H' && data[14] == 'D' && data[15] == 'R') {
+            return new Dimensions(int32BigEndian(data, 16), int32BigEndian(data, 20), "png");
+        }
+        // GIF : largeur et hauteur de l'écran logique sur 2 octets, petit-boutiste
+        if (length >= 10 && data[0] == 'G' && data[1] == 'I' && data[2] == 'F') {
+            return new Dimensions(uint16LittleEndian(data, 6), uint16LittleEndian(data, 8), "gif");
+        }
+        if (length >= 4 && (data[0] & 0xFF) == 0xFF && (data[1] & 0xFF) == 0xD8) {
+            return parseJpeg(data, length);
+        }
+        if (length >= 16 && data[0] == 'R' && data[1] == 'I' && data[2] == 'F' && data[3] == 'F'
+                && data[8] == 'W' && data[9] == 'E' && data[10] == 'B' && data[11] == 'P') {
+            return parseWebp(data, length);
+        }
+        return null;
+    }
+
+    /* Indique si les 16 premiers octets portent la signature d'un format reconnu.*/
+    private static boolean hasKnownSignature(byte[] data) {
+        return ((data[0] & 0xFF) == 0x89 && data[1] == 'P')
+                || (data[0] == 'G' && data[1] == 'I' && data[2] == 'F')
+                || ((data[0] & 0xFF) == 0xFF && (data[1] & 0xFF) == 0xD8)
+                || (data[0] == 'R' && data[1] == 'I' && data[8] == 'W' && data[9] == 'E');
+    }
+
+    /* Parcourt les segments JPEG jusqu'au marqueur SOF (Start Of Frame) qui porte les dimensions.*/
+    private static Dimensions parseJpeg(byte[] data, int length) {
+        int offset = 2;
+        while (offset + 4 <= length) {
+            if ((data[offset] & 0xFF) != 0xFF) {
+                return null;
+            }
+            int marker = data[offset + 1] & 0xFF;
+            if (marker == 0xFF) {
+                offset++; // Octet de remplissage
+                continue;
+            }
+            // SOF0 à SOF15, sauf DHT (C4), JPG (C8) et DAC (CC) qui partagent la plage
+            if (marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC) {
+                if (offset + 9 > length) {
+                    return null;
+                }
+                return new Dimensions(uint16BigEndian(data, offset + 7), uint16BigEndian(data, offset + 5), "jpeg");
+            }
+            if (marker == 0xD9 || marker == 0xDA) {
+                return null; // Fin d'image ou début des données compressées sans SOF
+            }
+            offset += 2 + uint16BigEndian(data, offset + 2);
+        }
+        return null;
+    }
+
+    /* Lit les dimensions du premier bloc d'un fichier WebP (VP8 avec perte, VP8L sans perte ou VP8X étendu).*/
+    private static Dimensions parseWebp(byte[] data, int length) {
+        String chunk = new String(data, 12, 4, StandardCharsets.US_ASCII);
+        switch (chunk) {
+            case "VP8 " -> {
+                if (length >= 30) {
+                    return new Dimensions(uint16LittleEndian(data, 26) & 0x3FFF, uint16LittleEndian(data, 28) & 0x3FFF,
+                            "webp");
+                }
+            }
+            case "VP8L" -> {
+                if (length >= 25) {
+                    int bits = (data[21] & 0xFF) | (data[22] & 0xFF) << 8 | (data[23] & 0xFF) << 16
+                            | (data[24] & 0xFF) << 24;
+                    return new Dimensions((bits & 0x3FFF) + 1, ((bits >> 14) & 0x3FFF) + 1, "webp");
+                }
+            }
+            case "VP8X" -> {
+                if (length >= 30) {
+                    return new Dimensions(uint24LittleEndian(data, 24) + 1, uint24LittleEndian(data, 27) + 1, "webp");
+                }
+            }
+            default -> {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static int int32BigEndian(byte[] data, int offset) {
+        return (data[offset] & 0xFF) << 24 | (data[offset + 1] & 0xFF) << 16 | (data[offset + 2] & 0xFF) << 8
+                | (data[offset + 3] & 0xFF);
+    }
+
+    private static int uint16BigEndian(byte[] data, int offset) {
+        return (data[offset] & 0xFF) << 8 | (data[offset + 1] & 0xFF);
+    }
+
+    private static int uint16LittleEndian(byte[] data, int offset) {
+        return (data[offset] & 0xFF) | (data[offset + 1] & 0xFF) << 8;
+    }
+
+    private static int uint24LittleEndian(byte[] data, int offset) {
+        return (data[offset] & 0xFF) | (data[offset + 1] & 0xFF) << 8 | (data[offset + 2] & 0xFF) << 16;
+    }
+}
@@ -0,0 +1,59 @@
+package com.myproject.gdocs2slides.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/* La classe ListBlock représente une suite contiguë d'éléments d'une même liste dans le texte d'une diapositive,
+ *  sous la forme d'un décalage et d'une longueur ; les niveaux d'imbrication y sont exprimés par des tabulations.
+ */
+public class ListBlock {
+
+    private final int offset;
+    private final int length;
+    private final String glyph;
+
+    /* Construit un bloc de liste couvrant l'intervalle donné, avec le type de puce de son premier niveau.*/
+    public ListBlock(int offset, int length, String glyph) {
+        this.offset = offset;
+        this.length = length;
+        this.glyph = glyph;
+    }
+
+    /* Retourne une copie du bloc avec un autre décalage et une autre longueur.*/
+    public ListBlock withRange(int newOffset, int newLength) {
+        return new ListBlock(newOffset, newLength, glyph);
+    }
+
+    /* Retourne les blocs compris dans l'intervalle [start, end), tronqués et décalés pour commencer à 0.*/
+    public static List<ListBlock> slice(List<ListBlock> blocks, int start, int end) {
+        List<ListBlock> sliced = new ArrayList<>();
+        for (ListBlock block : blocks) {
+            int from = Math.max(block.offset, start);
+            int to = Math.min(block.getEnd(), end);
+            if (from < to) {
+                sliced.add(block.withRange(from - start, to - from));
+            }
+        }
+        return sliced;
+    }
+
+    /* Retourne le décalage du bloc dans le texte.*/
+    public int getOffset() {
+        return offset;
+    }
+
+    /* Retourne la longueur du bloc.*/
+    public int getLength() {
+        return length;
+    }
+
+    /* Retourne la position de fin (exclue) du bloc.*/
+    public int getEnd() {
+        return offset + length;
+    }
+
+    /* Retourne le type ou le symbole de puce du premier niveau du bloc.*/
+    public String getGlyph() {
+        return glyph;
+    }
+}
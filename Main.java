@@ -1,12 +1,224 @@
 package com.myproject.gdocs2slides;
 
-import com.google.api.services.docs.v1.Docs;
-import com.google.api.services.slides.v1.Slides;
-import com.myproject.gdocs2slides.model.ContentElement;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class Main {
+    /* Point d'entrée en ligne de commande : convertit ou estime un ou plusieurs Google Docs.*/
     public static void main(String[] args) {
+        List<String> docIds = new ArrayList<>();
+        ConversionProfile profile = ConversionProfile.STANDARD;
+        Integer maxLines = null;
+        Integer maxWords = null;
+        ConversionProfile.OverflowMode overflow = null;
+        boolean estimateOnly = false;
+        String dryRunOutput = null;
+        boolean ndjson = false;
+        Integer maxInFlight = null;
+        List<String> identities = new ArrayList<>();
+        List<Path> serviceKeys = new ArrayList<>();
+        boolean watch = false;
+        boolean batchStats = false;
+        String templateId = null;
+        Long pollSeconds = null;
+        Long debounceSeconds = null;
+        String watchState = null;
+        Map<String, String> presentationIds = new HashMap<>();
+
+        try {
+            // Lecture des arguments
+            for (String arg : args) {
+                if (arg.startsWith("--profile=")) {
+                    profile = ConversionProfile.fromName(arg.substring("--profile=".length()));
+                } else if (arg.startsWith("--max-lines=")) {
+                    maxLines = Integer.parseInt(arg.substring("--max-lines=".length()));
+                } else if (arg.startsWith("--max-words=")) {
+                    maxWords = Integer.parseInt(arg.substring("--max-words=".length()));
+                } else if (arg.startsWith("--overflow=")) {
+                    String mode = arg.substring("--overflow=".length());
+                    if (mode.equals("split")) {
+                        overflow = ConversionProfile.OverflowMode.SPLIT;
+                    } else if (mode.equals("notes")) {
+                        overflow = ConversionProfile.OverflowMode.SPEAKER_NOTES;
+                    } else {
+                        throw new IllegalArgumentException("Unknown overflow mode: " + mode + " (expected split or notes)");
+                    }
+                } else if (arg.equals("--estimate")) {
+                    estimateOnly = true;
+                } else if (arg.startsWith("--dry-run=")) {
+                    dryRunOutput = arg.substring("--dry-run=".length());
+                } else if (arg.equals("--ndjson")) {
+                    ndjson = true;
+                } else if (arg.startsWith("--identities=")) {
+                    identities.addAll(Arrays.asList(arg.substring("--identities=".length()).split(",")));
+                } else if (arg.startsWith("--service-keys=")) {
+                    for (String key : arg.substring("--service-keys=".length()).split(",")) {
+                        serviceKeys.add(Paths.get(key));
+                    }
+                } else if (arg.startsWith("--template=")) {
+                    templateId = arg.substring("--template=".length());
+                } else if (arg.equals("--batch-stats")) {
+                    batchStats = true;
+                } else if (arg.equals("--watch")) {
+                    watch = true;
+                } else if (arg.startsWith("--poll-seconds=")) {
+                    pollSeconds = Long.parseLong(arg.substring("--poll-seconds=".length()));
+                } else if (arg.startsWith("--debounce-seconds=")) {
+                    debounceSeconds = Long.parseLong(arg.substring("--debounce-seconds=".length()));
+                } else if (arg.startsWith("--watch-state=")) {
+                    watchState = arg.substring("--watch-state=".length());
+                } else if (arg.startsWith("--in-flight=")) {
+                    maxInFlight = Integer.parseInt(arg.substring("--in-flight=".length()));
+                } else if (arg.startsWith("--")) {
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+                } else if (arg.contains("=")) {
+                    // docId=presentationId : présentation existante à synchroniser avec le document
+                    String docId = arg.substring(0, arg.indexOf('='));
+                    presentationIds.put(docId, arg.substring(arg.indexOf('=') + 1));
+                    docIds.add(docId);
+                } else {
+                    docIds.add(arg);
+                }
+            }
+            if (docIds.isEmpty()) {
+                throw new IllegalArgumentException("At least one document ID is required");
+            }
+            // Un seul mode d'exécution à la fois ; les options d'un mode exigent ce mode
+            List<String> modes = new ArrayList<>();
+            if (watch) {
+                modes.add("--watch");
+            }
+            if (dryRunOutput != null) {
+                modes.add("--dry-run");
+            }
+            if (estimateOnly) {
+                modes.add("--estimate");
+            }
+            if (maxInFlight != null) {
+                modes.add("--in-flight");
+            }
+            if (!identities.isEmpty() || !serviceKeys.isEmpty()) {
+                modes.add("--identities/--service-keys");
+            }
+            if (templateId != null && maxInFlight == null) {
+                // Avec --in-flight, le modèle s'applique à l'écriture en pipeline
+                modes.add("--template");
+            }
+            if (modes.size() > 1) {
+                throw new IllegalArgumentException("Options " + String.join(", ", modes) + " cannot be combined");
+            }
+            if (ndjson && dryRunOutput == null) {
+                throw new IllegalArgumentException("--ndjson requires --dry-run");
+            }
+            if (!watch && (pollSeconds != null || debounceSeconds != null || watchState != null)) {
+                throw new IllegalArgumentException("--poll-seconds, --debounce-seconds and --watch-state require --watch");
+            }
+            if (!watch && !presentationIds.isEmpty()) {
+                throw new IllegalArgumentException("<docId>=<presentationId> arguments require --watch");
+            }
+            // Valeurs personnalisées appliquées par-dessus le préréglage choisi
+            if (maxLines != null || maxWords != null) {
+                profile = profile.withSlideLimits(
+                        maxLines != null ? maxLines : profile.getMaxLinesPerSlide(),
+                        maxWords != null ? maxWords : profile.getMaxWordsPerSlide());
+            }
+            if (overflow != null) {
+                profile = profile.withOverflowMode(overflow);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            System.exit(2);
+            return;
+        }
+
+        try {
+            if (watch) {
+                // Surveillance continue : les présentations suivent les révisions des documents
+                DocumentWatcher watcher = new DocumentWatcher(GoogleServiceUtil.getDocsService(),
+                        GoogleServiceUtil.getSlidesService(), profile,
+                        pollSeconds != null ? pollSeconds * 1000 : DocumentWatcher.DEFAULT_POLL_INTERVAL_MILLIS,
+                        debounceSeconds != null ? debounceSeconds * 1000 : DocumentWatcher.DEFAULT_DEBOUNCE_MILLIS,
+                        DocumentWatcher.DEFAULT_WORKERS,
+                        Paths.get(watchState != null ? watchState : DocumentWatcher.DEFAULT_STATE_FILE));
+                Runtime.getRuntime().addShutdownHook(new Thread(watcher::close));
+                for (String docId : docIds) {
+                    watcher.watch(docId, presentationIds.get(docId));
+                }
+                System.out.println("Watching " + docIds.size() + " document(s); press Ctrl+C to stop.");
+            } else if (dryRunOutput != null) {
+                // Exécution à blanc : un fichier de plan par document
+                for (String docId : docIds) {
+                    Path output = docIds.size() == 1 ? Paths.get(dryRunOutput)
+                            : Paths.get(dryRunOutput).resolve(docId + (ndjson ? ".ndjson" : ".json"));
+                    System.out.println(docId + " -> " + SlidesWriter.dryRun(docId, profile, output, ndjson));
+                }
+            } else if (estimateOnly) {
+                // Estimation sans appel à l'API Slides
+                for (String docId : docIds) {
+                    for (ConversionEstimate estimate : SlidesWriter.estimate(docId, List.of(profile))) {
+                        System.out.println(docId + " -> " + estimate);
+                    }
+                }
+            } else if (maxInFlight != null) {
+                // Écriture en pipeline, document par document
+                for (String docId : docIds) {
+                    System.out.println(docId + " -> " + SlidesWriter.convertAsync(docId, profile, maxInFlight, templateId));
+                }
+            } else if (!identities.isEmpty() || !serviceKeys.isEmpty()) {
+                // Répartition des conversions sur plusieurs identités
+                CredentialPool pool = CredentialPool.load(identities, serviceKeys, CredentialPool.DEFAULT_COOLDOWN_MILLIS);
+                for (Map.Entry<String, String> entry : SlidesWriter.convertAll(docIds, profile, pool).entrySet()) {
+                    System.out.println(entry.getKey() + " -> " + entry.getValue());
+                }
+            } else if (templateId != null) {
+                // Présentations construites à partir d'une copie du modèle
+                for (String docId : docIds) {
+                    System.out.println(docId + " -> " + SlidesWriter.convert(docId, profile, templateId));
+                }
+            } else if (docIds.size() == 1) {
+                System.out.println("Presentation URL: " + SlidesWriter.convert(docIds.get(0), profile));
+            } else {
+                for (Map.Entry<String, String> entry : SlidesWriter.convertAll(docIds, profile).entrySet()) {
+                    System.out.println(entry.getKey() + " -> " + entry.getValue());
+                }
+            }
+            if (batchStats) {
+                // Histogrammes des lots batchUpdate, pour régler le découpage adaptatif
+                for (String line : AdaptiveBatcher.getDefault().report()) {
+                    System.out.println("  " + line);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("\nError processing document:");
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /* Affiche l'aide de la ligne de commande.*/
+    private static void printUsage() {
+        System.err.println("Usage: Main <docId>... [--profile=dense|standard|presentation]"
+                + " [--max-lines=N] [--max-words=N] [--overflow=split|notes] [--estimate] [--dry-run=<file|dir> [--ndjson]] [--in-flight=N]"
+                + " [--identities=user1,user2] [--service-keys=key1.json,key2.json] [--batch-stats]"
+                + " [--template=<presentationId>]"
+                + " [--watch [--poll-seconds=N] [--debounce-seconds=N] [--watch-state=<file>]]");
+        System.err.println("  --watch, --dry-run, --estimate, --in-flight, --identities/--service-keys and --template"
+                + " are exclusive modes, except --template with --in-flight.");
+        System.err.println("  With --watch, a <docId>=<presentationId> argument syncs an existing presentation;"
+                + " otherwise the one recorded in the state file (default " + DocumentWatcher.DEFAULT_STATE_FILE
+                + ") is reused, or a new one is created.");
+        System.err.println("  Each sync of a changed document is a full rebuild: new slides are written, then the old ones"
+                + " are deleted. Unchanged documents are skipped, including after a restart.");
+    }
+
+    /* Ancien diagnostic de structure du document, conservé pour référence.*/
+    private static void analyze(String[] args) {
             /*try {
             // Initialize services
             Docs docsService = GoogleServiceUtil.getDocsService();
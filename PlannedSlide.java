@@ -0,0 +1,120 @@
+package com.myproject.gdocs2slides.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/* La classe PlannedSlide décrit une diapositive à créer, telle que calculée par la planification
+ *  avant tout appel à l'API Slides.
+ */
+public class PlannedSlide {
+    public enum SlideKind {
+        TITLE,
+        SECTION_HEADER,
+        TEXT,
+        IMAGE,
+        TABLE,
+        BLANK
+    }
+
+    private SlideKind kind;
+    private String title;
+    private String body;
+    private List<TextStyleSpan> bodySpans = new ArrayList<>(); // Segments stylés, relatifs au texte du corps
+    private List<ListBlock> listBlocks = new ArrayList<>();    // Blocs de liste à puces, relatifs au texte du corps
+    private String speakerNotes;    // Texte placé dans les notes de l'orateur (débordement d'un paragraphe trop long)
+    private ContentElement element; // Élément source pour les images et les tableaux
+
+    /* Construit une diapositive planifiée du type spécifié.*/
+    public PlannedSlide(SlideKind kind) {
+        this.kind = kind;
+    }
+
+    /* Construit une diapositive de texte avec un titre et un corps.*/
+    public PlannedSlide(String title, String body) {
+        this(SlideKind.TEXT);
+        this.title = title;
+        this.body = body;
+    }
+
+    /* Construit une diapositive composée uniquement d'un titre (diapositive de titre ou en-tête de section).*/
+    public PlannedSlide(SlideKind kind, String title) {
+        this(kind);
+        this.title = title;
+    }
+
+    /* Construit une diapositive portant un élément non textuel (image ou tableau).*/
+    public PlannedSlide(SlideKind kind, ContentElement element) {
+        this(kind);
+        this.element = element;
+    }
+
+    /* Retourne le type de la diapositive.*/
+    public SlideKind getKind() {
+        return kind;
+    }
+
+    /* Définit le type de la diapositive.*/
+    public void setKind(SlideKind kind) {
+        this.kind = kind;
+    }
+
+    /* Retourne le titre de la diapositive.*/
+    public String getTitle() {
+        return title;
+    }
+
+    /* Définit le titre de la diapositive.*/
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    /* Retourne le texte du corps de la diapositive.*/
+    public String getBody() {
+        return body;
+    }
+
+    /* Définit le texte du corps de la diapositive.*/
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    /* Retourne les segments stylés du corps.*/
+    public List<TextStyleSpan> getBodySpans() {
+        return bodySpans;
+    }
+
+    /* Définit les segments stylés du corps.*/
+    public void setBodySpans(List<TextStyleSpan> bodySpans) {
+        this.bodySpans = bodySpans;
+    }
+
+    /* Retourne les blocs de liste du corps.*/
+    public List<ListBlock> getListBlocks() {
+        return listBlocks;
+    }
+
+    /* Définit les blocs de liste du corps.*/
+    public void setListBlocks(List<ListBlock> listBlocks) {
+        this.listBlocks = listBlocks;
+    }
+
+    /* Retourne le texte des notes de l'orateur, ou null.*/
+    public String getSpeakerNotes() {
+        return speakerNotes;
+    }
+
+    /* Définit le texte des notes de l'orateur.*/
+    public void setSpeakerNotes(String speakerNotes) {
+        this.speakerNotes = speakerNotes;
+    }
+
+    /* Retourne l'élément source de la diapositive.*/
+    public ContentElement getElement() {
+        return element;
+    }
+
+    /* Définit l'élément source de la diapositive.*/
+    public void setElement(ContentElement element) {
+        this.element = element;
+    }
+}
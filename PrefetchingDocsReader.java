@@ -0,0 +1,264 @@
+package com.myproject.gdocs2slides;
+
+import com.google.api.services.docs.v1.Docs;
+import com.google.api.services.docs.v1.model.Document;
+import com.myproject.gdocs2slides.model.ContentElement;
+import com.myproject.gdocs2slides.model.TextStyleSpan;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+//La classe PrefetchingDocsReader récupère à l'avance les documents suivants d'une file pendant que le document courant est écrit dans Slides.
+public class PrefetchingDocsReader implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_PREFETCH = 3;
+    public static final long DEFAULT_MEMORY_BUDGET_BYTES = 64L * 1024 * 1024;
+    // Place réservée pour une récupération tant qu'aucun document n'a été mesuré : un gros document Docs
+    // (JSON analysé et contenu extrait) occupe plusieurs mégaoctets
+    static final long INITIAL_DOCUMENT_ESTIMATE_BYTES = 16L * 1024 * 1024;
+
+    private final DocumentFetcher fetcher;
+    private final Deque<String> pendingIds;
+    private final Deque<Future<PrefetchedDocument>> inFlight = new ArrayDeque<>();
+    private final int maxPrefetch;
+    private final long memoryBudgetBytes;
+    private final ExecutorService executor;
+
+    private long bufferedBytes = 0;   // Taille estimée des documents terminés mais pas encore consommés
+    private int bufferedCount = 0;    // Nombre de documents terminés mais pas encore consommés
+    private long largestFetchBytes = 0; // Plus grande taille observée pendant une récupération (Document brut et contenu)
+
+    /* Récupération d'un document brut, remplaçable par les tests.*/
+    interface DocumentFetcher {
+        Document fetch(String documentId) throws IOException;
+    }
+
+    /**
+     * Document récupéré et extrait, prêt à être converti.
+     */
+    public static final class PrefetchedDocument {
+        private final String documentId;
+        private final List<ContentElement> content;
+        private final long estimatedBytes;
+
+        PrefetchedDocument(String documentId, List<ContentElement> content, long estimatedBytes) {
+            this.documentId = documentId;
+            this.content = content;
+            this.estimatedBytes = estimatedBytes;
+        }
+
+        /* Retourne l'identifiant du document.*/
+        public String getDocumentId() {
+            return documentId;
+        }
+
+        /* Retourne les éléments de contenu extraits du document.*/
+        public List<ContentElement> getContent() {
+            return content;
+        }
+
+        /* Retourne la taille mémoire estimée du contenu extrait (conservé jusqu'à la conversion), en octets.*/
+        public long getEstimatedBytes() {
+            return estimatedBytes;
+        }
+    }
+
+    /**
+     * Crée un lecteur avec les limites par défaut.
+     * @param docsService le service Google Docs initialisé
+     * @param documentIds les identifiants des documents, dans l'ordre de conversion
+     */
+    public PrefetchingDocsReader(Docs docsService, List<String> documentIds) {
+        this(docsService, documentIds, DEFAULT_MAX_PREFETCH, DEFAULT_MEMORY_BUDGET_BYTES);
+    }
+
+    /**
+     * Crée un lecteur qui garde au plus {@code maxPrefetch} documents en avance, dans la limite du budget mémoire.
+     * @param docsService le service Google Docs initialisé
+     * @param documentIds les identifiants des documents, dans l'ordre de conversion
+     * @param maxPrefetch nombre maximal de documents récupérés ou en cours de récupération
+     * @param memoryBudgetBytes taille mémoire maximale des documents récupérés en avance
+     */
+    public PrefetchingDocsReader(Docs docsService, List<String> documentIds, int maxPrefetch, long memoryBudgetBytes) {
+        this(documentId -> DocsReader.fetchDocument(docsService, documentId), documentIds, maxPrefetch, memoryBudgetBytes);
+    }
+
+    /* Crée un lecteur dont les documents bruts sont récupérés par la fonction donnée.*/
+    PrefetchingDocsReader(DocumentFetcher fetcher, List<String> documentIds, int maxPrefetch, long memoryBudgetBytes) {
+        if (maxPrefetch < 1) {
+            throw new IllegalArgumentException("maxPrefetch must be at least 1");
+        }
+        if (memoryBudgetBytes < 1) {
+            throw new IllegalArgumentException("memoryBudgetBytes must be positive");
+        }
+        this.fetcher = fetcher;
+        this.pendingIds = new ArrayDeque<>(documentIds);
+        this.maxPrefetch = maxPrefetch;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.executor = Executors.newFixedThreadPool(maxPrefetch, runnable -> {
+            Thread thread = new Thread(runnable, "docs-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        schedule();
+    }
+
+    /**
+     * Indique s'il reste des documents à consommer.
+     */
+    public synchronized boolean hasNext() {
+        return !inFlight.isEmpty() || !pendingIds.isEmpty();
+    }
+
+    /**
+     * Retourne le document suivant dans l'ordre de la file, en attendant sa récupération si nécessaire.
+     */
+    public PrefetchedDocument next() throws IOException {
+        Future<PrefetchedDocument> future;
+        synchronized (this) {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more documents to read");
+            }
+            future = inFlight.pollFirst();
+        }
+
+        try {
+            PrefetchedDocument document = future.get();
+            synchronized (this) {
+                // Libérer la place occupée par le document consommé et relancer les récupérations
+                bufferedBytes -= document.getEstimatedBytes();
+                bufferedCount--;
+                schedule();
+            }
+            return document;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a prefetched document", e);
+        } catch (ExecutionException e) {
+            synchronized (this) {
+                schedule();
+            }
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed to prefetch document", e.getCause());
+        }
+    }
+
+    /**
+     * Arrête les récupérations en cours et libère les threads.
+     */
+    @Override
+    public synchronized void close() {
+        pendingIds.clear();
+        for (Future<PrefetchedDocument> future : inFlight) {
+            future.cancel(true);
+        }
+        inFlight.clear();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Lance de nouvelles récupérations tant que le nombre de documents et le budget mémoire le permettent.
+     * Au moins un document est toujours en cours pour garantir la progression.
+     */
+    private synchronized void schedule() {
+        while (!pendingIds.isEmpty() && inFlight.size() < maxPrefetch) {
+            // Réserver pour chaque récupération en vol la plus grande taille observée (Document brut et contenu
+            // extrait coexistent pendant l'extraction), ou l'estimation initiale avant toute mesure
+            long fetchBytes = largestFetchBytes == 0 ? INITIAL_DOCUMENT_ESTIMATE_BYTES : largestFetchBytes;
+            long pendingFetches = inFlight.size() - bufferedCount;
+            long reservedBytes = bufferedBytes + pendingFetches * fetchBytes;
+            if (!inFlight.isEmpty() && reservedBytes + fetchBytes > memoryBudgetBytes) {
+                break;
+            }
+            String documentId = pendingIds.pollFirst();
+            inFlight.addLast(executor.submit(() -> fetch(documentId)));
+        }
+    }
+
+    /**
+     * Récupère et extrait un document sur un thread de préchargement.
+     */
+    private PrefetchedDocument fetch(String documentId) throws IOException {
+        Document raw = fetcher.fetch(documentId);
+        List<ContentElement> content = DocsReader.extractContent(raw, documentId);
+        PrefetchedDocument document = new PrefetchedDocument(documentId, content, estimateBytes(content));
+        long fetchBytes = estimateJsonBytes(raw) + document.getEstimatedBytes();
+        synchronized (this) {
+            bufferedBytes += document.getEstimatedBytes();
+            bufferedCount++;
+            largestFetchBytes = Math.max(largestFetchBytes, fetchBytes);
+        }
+        System.out.println("Document préchargé: " + documentId + " (~" + document.getEstimatedBytes() + " octets)");
+        return document;
+    }
+
+    /**
+     * Estime la taille mémoire d'une liste d'éléments de contenu (texte UTF-16, URLs, segments stylés,
+     * champs de liste et cellules de tableau).
+     */
+    static long estimateBytes(List<ContentElement> content) {
+        long bytes = 0;
+        for (ContentElement element : content) {
+            bytes += 96; // En-tête d'objet, champs primitifs et listes vides
+            bytes += estimateStringBytes(element.getText());
+            bytes += estimateStringBytes(element.getImageUrl());
+            bytes += estimateStringBytes(element.getListId());
+            bytes += estimateStringBytes(element.getListGlyph());
+            if (element.getStyleSpans() != null) {
+                for (TextStyleSpan span : element.getStyleSpans()) {
+                    bytes += 48 + estimateStringBytes(span.getLinkUrl());
+                }
+            }
+            for (List<String> row : element.getTableData()) {
+                bytes += 32;
+                for (String cell : row) {
+                    bytes += 40 + (cell != null ? 2L * cell.length() : 0);
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Estime la taille mémoire d'un objet JSON analysé (Document brut) en parcourant ses maps, listes et chaînes.
+     */
+    static long estimateJsonBytes(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return estimateStringBytes((String) value);
+        }
+        if (value instanceof Map) {
+            long bytes = 64;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                // Entrée de map et clé (les noms de champs sont partagés, seule l'entrée est comptée)
+                bytes += 32 + estimateJsonBytes(entry.getValue());
+            }
+            return bytes;
+        }
+        if (value instanceof Collection) {
+            long bytes = 40;
+            for (Object item : (Collection<?>) value) {
+                bytes += 8 + estimateJsonBytes(item);
+            }
+            return bytes;
+        }
+        return 24; // Nombre, booléen ou énumération
+    }
+
+    private static long estimateStringBytes(String value) {
+        return value == null ? 0 : 40 + 2L * value.length();
+    }
+}
@@ -0,0 +1,12 @@
+package com.myproject.gdocs2slides;
+
+import java.io.IOException;
+
+/* L'interface PresentationCopier copie une présentation modèle et retourne l'identifiant de la copie ;
+ *  elle permet de remplacer la copie Drive par une implémentation locale.
+ */
+public interface PresentationCopier {
+
+    /* Copie la présentation modèle sous le titre donné et retourne l'identifiant de la nouvelle présentation.*/
+    String copy(String templateId, String title) throws IOException;
+}
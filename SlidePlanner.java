@@ -0,0 +1,264 @@
+package com.myproject.gdocs2slides;
+
+import com.myproject.gdocs2slides.model.ContentElement;
+import com.myproject.gdocs2slides.model.ListBlock;
+import com.myproject.gdocs2slides.model.PlannedSlide;
+import com.myproject.gdocs2slides.model.TextStyleSpan;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/* La classe SlidePlanner découpe une liste d'éléments de contenu en diapositives planifiées selon les limites
+ *  d'un profil de conversion, sans aucun appel à l'API Slides.
+ */
+public class SlidePlanner {
+
+    /* Planifie les diapositives à créer pour une liste d'éléments de contenu.
+     * Les titres de niveau 1 et 2 délimitent les diapositives et leur donnent leur titre ; un titre sans paragraphe
+     * en dessous devient une diapositive d'en-tête de section, et le titre du document une diapositive de titre.
+     * Les titres de niveau 3 sont des sous-titres : ils restent, en gras, dans le corps de la diapositive en cours.*/
+    public static List<PlannedSlide> plan(List<ContentElement> contentElements, ConversionProfile profile) {
+        List<PlannedSlide> slides = new ArrayList<>();
+        String lastSectionTitle = "";
+        String currentHeading = null;     // Titre courant, utilisé comme titre des diapositives qui suivent
+        boolean headingUsed = false;      // Vrai dès qu'au moins un paragraphe a été placé sous le titre courant
+        List<ContentElement> currentParagraphs = new ArrayList<>();
+
+        // Parcours des éléments de contenu pour organiser les slides
+        for (ContentElement element : contentElements) {
+            String slideTitle = currentHeading != null ? currentHeading : lastSectionTitle;
+            switch (element.getType()) {
+                case SECTION_TITLE, DOCUMENT_TITLE, HEADING_1, HEADING_2 -> {
+                    // Un nouveau titre ferme la diapositive en cours
+                    planParagraphs(slides, slideTitle, currentParagraphs, profile);
+                    if (currentHeading != null && !headingUsed) {
+                        slides.add(new PlannedSlide(PlannedSlide.SlideKind.SECTION_HEADER, currentHeading));
+                    }
+                    currentHeading = null;
+                    headingUsed = false;
+                    if (element.getType() == ContentElement.ElementType.SECTION_TITLE) {
+                        lastSectionTitle = element.getText();
+                    } else if (element.getType() == ContentElement.ElementType.DOCUMENT_TITLE) {
+                        slides.add(new PlannedSlide(PlannedSlide.SlideKind.TITLE, element.getText()));
+                    } else {
+                        currentHeading = element.getText();
+                    }
+                }
+                case PARAGRAPH -> {
+                    headingUsed = true;
+                    // Gestion des paragraphes en fonction de leur longueur
+                    if (countWords(element.getText()) > profile.getMaxWordsPerSlide()) {
+                        // Si le paragraphe est trop long, créer des slides séparés ou déborder dans les notes
+                        planParagraphs(slides, slideTitle, currentParagraphs, profile);
+                        if (profile.getOverflowMode() == ConversionProfile.OverflowMode.SPEAKER_NOTES) {
+                            planParagraphWithNotes(slides, slideTitle, element, profile);
+                        } else {
+                            planLongParagraph(slides, slideTitle, element, profile);
+                        }
+                    } else {
+                        currentParagraphs.add(element);
+                    }
+                }
+                case HEADING_3 -> {
+                    headingUsed = true;
+                    currentParagraphs.add(subheading(element));
+                }
+                case LIST_ITEM -> {
+                    // Les éléments de liste ne sont jamais coupés : chacun occupe une ligne du corps
+                    headingUsed = true;
+                    currentParagraphs.add(element);
+                }
+                default -> {
+                    // Gestion des éléments non textuels (images, tableaux), chacun sur sa diapositive
+                    planParagraphs(slides, slideTitle, currentParagraphs, profile);
+                    // Un titre suivi directement d'une image ou d'un tableau les précède en en-tête de section
+                    if (currentHeading != null && !headingUsed) {
+                        slides.add(new PlannedSlide(PlannedSlide.SlideKind.SECTION_HEADER, currentHeading));
+                        headingUsed = true;
+                    }
+                    if (element.getType() == ContentElement.ElementType.IMAGE) {
+                        slides.add(new PlannedSlide(PlannedSlide.SlideKind.IMAGE, element));
+                    } else if (element.getType() == ContentElement.ElementType.TABLE) {
+                        slides.add(new PlannedSlide(PlannedSlide.SlideKind.TABLE, element));
+                    }
+                }
+            }
+        }
+
+        // Création des slides pour les paragraphes restants
+        planParagraphs(slides, currentHeading != null ? currentHeading : lastSectionTitle, currentParagraphs, profile);
+        if (currentHeading != null && !headingUsed) {
+            slides.add(new PlannedSlide(PlannedSlide.SlideKind.SECTION_HEADER, currentHeading));
+        }
+        return slides;
+    }
+
+    /*Retourne un sous-titre sous la forme d'un paragraphe entièrement en gras, qui garde ses propres segments stylés.*/
+    private static ContentElement subheading(ContentElement heading) {
+        ContentElement paragraph = new ContentElement(ContentElement.ElementType.PARAGRAPH, heading.getText());
+        List<TextStyleSpan> spans = new ArrayList<>();
+        spans.add(new TextStyleSpan(0, heading.getText().length(), true, false, false, false, null));
+        spans.addAll(heading.getStyleSpans());
+        paragraph.setStyleSpans(spans);
+        return paragraph;
+    }
+
+    /*Planifie des diapositives pour les paragraphes en attente, en les divisant selon les limites de lignes et de mots, puis vide la liste.*/
+    private static void planParagraphs(List<PlannedSlide> slides, String sectionTitle, List<ContentElement> paragraphs,
+                                       ConversionProfile profile) {
+        if (paragraphs.isEmpty()) {
+            return;
+        }
+        // Concaténation de tous les paragraphes en un seul texte, avec leurs segments stylés recalés.
+        // Les éléments de liste sont préfixés d'une tabulation par niveau d'imbrication, que CreateParagraphBullets
+        // convertit en retrait, et les éléments consécutifs d'une même liste forment un seul bloc.
+        StringBuilder allText = new StringBuilder();
+        List<TextStyleSpan> allSpans = new ArrayList<>();
+        List<ListBlock> allBlocks = new ArrayList<>();
+        ContentElement previous = null;
+        for (ContentElement para : paragraphs) {
+            if (allText.length() > 0) {
+                allText.append("\n");
+            }
+            int lineStart = allText.length();
+            boolean listItem = para.getType() == ContentElement.ElementType.LIST_ITEM;
+            if (listItem) {
+                allText.append("\t".repeat(para.getListLevel()));
+            }
+            int base = allText.length();
+            allText.append(para.getText());
+            for (TextStyleSpan span : para.getStyleSpans()) {
+                allSpans.add(span.withRange(base + span.getOffset(), span.getLength()));
+            }
+            if (listItem) {
+                boolean sameList = previous != null && previous.getType() == ContentElement.ElementType.LIST_ITEM
+                        && Objects.equals(previous.getListId(), para.getListId());
+                if (sameList) {
+                    ListBlock block = allBlocks.remove(allBlocks.size() - 1);
+                    allBlocks.add(block.withRange(block.getOffset(), allText.length() - block.getOffset()));
+                } else {
+                    allBlocks.add(new ListBlock(lineStart, allText.length() - lineStart, para.getListGlyph()));
+                }
+            }
+            previous = para;
+        }
+        paragraphs.clear();
+        String text = allText.toString();
+
+        // Parcours des lignes pour organiser les diapositives ; chaque diapositive couvre un intervalle du texte
+        int slideStart = 0;
+        int lineStart = 0;
+        int slideLineCount = 0;
+        int slideWordCount = 0;
+        for (String line : text.split("\n")) {
+            int lineWordCount = countWords(line);
+            // Si la diapositive est pleine, créer une nouvelle diapositive
+            if (slideLineCount > 0 && (slideLineCount >= profile.getMaxLinesPerSlide()
+                    || slideWordCount + lineWordCount > profile.getMaxWordsPerSlide())) {
+                addTextSlide(slides, sectionTitle, text, allSpans, allBlocks, slideStart, lineStart - 1);
+                slideStart = lineStart;
+                slideLineCount = 0;
+                slideWordCount = 0;
+            }
+            slideLineCount++;
+            slideWordCount += lineWordCount;
+            lineStart += line.length() + 1;
+        }
+        // Création d'une diapositive pour les lignes restantes
+        if (slideLineCount > 0) {
+            addTextSlide(slides, sectionTitle, text, allSpans, allBlocks, slideStart, text.length());
+        }
+    }
+
+    /*Planifie des diapositives consécutives pour un paragraphe qui dépasse la limite de mots.*/
+    private static void planLongParagraph(List<PlannedSlide> slides, String sectionTitle, ContentElement paragraph,
+                                          ConversionProfile profile) {
+        String text = paragraph.getText();
+        int chunkStart = -1;
+        int chunkEnd = 0;
+        int chunkWordCount = 0;
+        int i = 0;
+        // Division du paragraphe en morceaux respectant la limite de mots, en conservant les positions d'origine
+        while (i < text.length()) {
+            while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            if (i >= text.length()) {
+                break;
+            }
+            int wordStart = i;
+            while (i < text.length() && !Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            if (chunkWordCount + 1 > profile.getMaxWordsPerSlide()) {
+                addTextSlide(slides, sectionTitle, text, paragraph.getStyleSpans(), List.of(), chunkStart, chunkEnd);
+                chunkStart = -1;
+                chunkWordCount = 0;
+            }
+            if (chunkStart < 0) {
+                chunkStart = wordStart;
+            }
+            chunkEnd = i;
+            chunkWordCount++;
+        }
+        // Création d'un slide pour le dernier morceau, s'il existe
+        if (chunkWordCount > 0) {
+            addTextSlide(slides, sectionTitle, text, paragraph.getStyleSpans(), List.of(), chunkStart, chunkEnd);
+        }
+    }
+
+    /*Planifie une seule diapositive pour un paragraphe qui dépasse la limite de mots : les premières phrases qui
+     * tiennent dans la limite forment le corps, et la suite du paragraphe va dans les notes de l'orateur.*/
+    private static void planParagraphWithNotes(List<PlannedSlide> slides, String sectionTitle, ContentElement paragraph,
+                                               ConversionProfile profile) {
+        String text = paragraph.getText();
+        int wordCount = 0;
+        int wordLimitEnd = 0;     // Fin du dernier mot dans la limite
+        int sentenceEnd = -1;     // Fin de la dernière phrase complète dans la limite
+        int i = 0;
+        while (i < text.length()) {
+            while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            if (i >= text.length()) {
+                break;
+            }
+            while (i < text.length() && !Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            if (++wordCount > profile.getMaxWordsPerSlide()) {
+                break;
+            }
+            wordLimitEnd = i;
+            char last = text.charAt(i - 1);
+            if (last == '.' || last == '!' || last == '?' || last == '…') {
+                sentenceEnd = i;
+            }
+        }
+        // Coupure après la dernière phrase complète, sinon au dernier mot autorisé
+        int cut = sentenceEnd > 0 ? sentenceEnd : wordLimitEnd;
+        addTextSlide(slides, sectionTitle, text, paragraph.getStyleSpans(), List.of(), 0, cut);
+        String notes = text.substring(cut).strip();
+        if (!notes.isEmpty()) {
+            slides.get(slides.size() - 1).setSpeakerNotes(notes);
+        }
+    }
+
+    /*Ajoute une diapositive de texte couvrant l'intervalle [start, end) du texte, avec les segments stylés
+     * et les blocs de liste correspondants.*/
+    private static void addTextSlide(List<PlannedSlide> slides, String title, String text, List<TextStyleSpan> spans,
+                                     List<ListBlock> blocks, int start, int end) {
+        PlannedSlide slide = new PlannedSlide(title, text.substring(start, end));
+        slide.setBodySpans(TextStyleSpan.coalesce(TextStyleSpan.slice(spans, start, end), slide.getBody()));
+        slide.setListBlocks(ListBlock.slice(blocks, start, end));
+        slides.add(slide);
+    }
+
+    /*Compte les mots d'un texte de la même façon que le découpage (séparation sur les espaces) ; les tabulations
+     * d'imbrication des listes ne comptent pas comme un mot.*/
+    static int countWords(String text) {
+        String words = text.strip();
+        return words.isEmpty() ? 1 : words.split("\\s+").length;
+    }
+}
@@ -0,0 +1,351 @@
+package com.myproject.gdocs2slides;
+
+import com.google.api.services.slides.v1.model.*;
+import com.myproject.gdocs2slides.model.ContentElement;
+import com.myproject.gdocs2slides.model.ListBlock;
+import com.myproject.gdocs2slides.model.PlannedSlide;
+import com.myproject.gdocs2slides.model.TextStyleSpan;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/* La classe SlideRequestBuilder transforme les diapositives planifiées en requêtes batchUpdate, sans appel à l'API :
+ *  les identifiants des placeholders sont fixés à la création, ce qui évite de relire la présentation.
+ */
+public class SlideRequestBuilder {
+
+    public static final double SLIDE_WIDTH_PT = 720.0;  // Taille par défaut d'une présentation 16:9
+    public static final double SLIDE_HEIGHT_PT = 405.0;
+    private static final double IMAGE_MARGIN_PT = 36.0;
+    private static final double EMU_PER_PT = 12700.0;
+
+    private final ConversionProfile profile;
+    private final boolean deterministicIds; // Identifiants séquentiels (exécution à blanc) plutôt qu'aléatoires
+    private final Map<String, String> templateLayouts; // Mise en page prédéfinie -> identifiant de mise en page du modèle
+    private final double pageWidth;  // Taille des pages de la présentation, en points
+    private final double pageHeight;
+    private final Set<String> usedIds = new HashSet<>();
+    private int idCounter = 0;
+
+    /* Construit un générateur de requêtes pour le profil donné, avec les mises en page prédéfinies.*/
+    public SlideRequestBuilder(ConversionProfile profile, boolean deterministicIds) {
+        this(profile, deterministicIds, Map.of());
+    }
+
+    /* Construit un générateur de requêtes qui utilise les mises en page d'un modèle de présentation ; les polices
+     * du thème du modèle sont alors conservées pour les titres et pour les corps de longueur normale.*/
+    public SlideRequestBuilder(ConversionProfile profile, boolean deterministicIds, Map<String, String> templateLayouts) {
+        this(profile, deterministicIds, templateLayouts, null);
+    }
+
+    /* Construit un générateur de requêtes pour les mises en page et la taille de page d'un modèle de présentation ;
+     * une taille nulle ou sans unité connue est remplacée par la taille par défaut 16:9.*/
+    public SlideRequestBuilder(ConversionProfile profile, boolean deterministicIds, Map<String, String> templateLayouts,
+                               Size pageSize) {
+        this.profile = profile;
+        this.deterministicIds = deterministicIds;
+        this.templateLayouts = templateLayouts;
+        this.pageWidth = toPoints(pageSize != null ? pageSize.getWidth() : null, SLIDE_WIDTH_PT);
+        this.pageHeight = toPoints(pageSize != null ? pageSize.getHeight() : null, SLIDE_HEIGHT_PT);
+    }
+
+    /* Construit les requêtes (création et contenu) d'une diapositive planifiée, dans l'ordre d'exécution.*/
+    public List<Request> buildSlide(PlannedSlide plannedSlide) {
+        List<Request> requests = new ArrayList<>();
+        String slideId = generateUniqueId("slide_");
+
+        if (plannedSlide.getKind() == PlannedSlide.SlideKind.TEXT) {
+            buildTextSlide(requests, slideId, plannedSlide);
+            return requests;
+        }
+        if (plannedSlide.getKind() == PlannedSlide.SlideKind.TITLE) {
+            buildTitleOnlySlide(requests, slideId, "TITLE", "CENTERED_TITLE", plannedSlide.getTitle());
+            return requests;
+        }
+        if (plannedSlide.getKind() == PlannedSlide.SlideKind.SECTION_HEADER) {
+            buildTitleOnlySlide(requests, slideId, "SECTION_HEADER", "TITLE", plannedSlide.getTitle());
+            return requests;
+        }
+
+        // Création d'une nouvelle diapositive vierge pour les éléments non textuels
+        requests.add(new Request()
+            .setCreateSlide(new CreateSlideRequest()
+                .setObjectId(slideId)
+                .setSlideLayoutReference(layoutReference("BLANK"))));
+        if (plannedSlide.getKind() == PlannedSlide.SlideKind.IMAGE) {
+            buildImage(requests, slideId, plannedSlide.getElement());
+        } else if (plannedSlide.getKind() == PlannedSlide.SlideKind.TABLE) {
+            buildTable(requests, slideId, plannedSlide.getElement());
+        }
+        return requests;
+    }
+
+    /* Ajoute la création d'une diapositive titre et corps avec des placeholders nommés, puis l'insertion du texte.*/
+    private void buildTextSlide(List<Request> requests, String slideId, PlannedSlide plannedSlide) {
+        String titleText = plannedSlide.getTitle();
+        String bodyText = plannedSlide.getBody();
+        String titlePlaceholderId = generateUniqueId("title_");
+        String bodyPlaceholderId = generateUniqueId("body_");
+        // Création d'une diapositive avec une mise en page titre et corps
+        List<LayoutPlaceholderIdMapping> mappings = new ArrayList<>();
+        mappings.add(new LayoutPlaceholderIdMapping()
+            .setLayoutPlaceholder(new Placeholder().setType("TITLE").setIndex(0))
+            .setObjectId(titlePlaceholderId));
+        mappings.add(new LayoutPlaceholderIdMapping()
+            .setLayoutPlaceholder(new Placeholder().setType("BODY").setIndex(0))
+            .setObjectId(bodyPlaceholderId));
+        requests.add(new Request()
+            .setCreateSlide(new CreateSlideRequest()
+                .setObjectId(slideId)
+                .setSlideLayoutReference(layoutReference("TITLE_AND_BODY"))
+                .setPlaceholderIdMappings(mappings)));
+
+        // Insertion du texte du titre, si disponible
+        if (titleText != null && !titleText.isEmpty()) {
+            requests.add(new Request()
+                .setInsertText(new InsertTextRequest()
+                    .setObjectId(titlePlaceholderId)
+                    .setInsertionIndex(0)
+                    .setText(titleText)));
+            if (templateLayouts.isEmpty()) {
+                requests.add(setFontSizeRequest(titlePlaceholderId, profile.getTitleFontSize()));
+            }
+        }
+        // Insertion du texte du corps, avec ajustement de la taille de police
+        if (bodyText != null && !bodyText.isEmpty()) {
+            requests.add(new Request()
+                .setInsertText(new InsertTextRequest()
+                    .setObjectId(bodyPlaceholderId)
+                    .setInsertionIndex(0)
+                    .setText(bodyText)));
+            double bodyFontSize = profile.bodyFontSizeFor(bodyText);
+            // Avec un modèle, seuls les corps longs sont réduits ; les autres gardent la police du thème
+            if (templateLayouts.isEmpty() || bodyFontSize != profile.getBodyFontSizeDefault()) {
+                requests.add(setFontSizeRequest(bodyPlaceholderId, bodyFontSize));
+            }
+            // Une requête par segment stylé, les segments identiques et adjacents étant déjà fusionnés
+            for (TextStyleSpan span : TextStyleSpan.coalesce(plannedSlide.getBodySpans(), bodyText)) {
+                requests.add(styleSpanRequest(bodyPlaceholderId, span));
+            }
+            // Une requête par bloc de liste, après les styles et du dernier bloc au premier : l'API retire les
+            // tabulations d'imbrication du bloc traité, ce qui décalerait les intervalles des segments et des blocs suivants
+            List<ListBlock> blocks = new ArrayList<>(plannedSlide.getListBlocks());
+            blocks.sort(Comparator.comparingInt(ListBlock::getOffset).reversed());
+            for (ListBlock block : blocks) {
+                requests.add(new Request()
+                    .setCreateParagraphBullets(new CreateParagraphBulletsRequest()
+                        .setObjectId(bodyPlaceholderId)
+                        .setTextRange(new Range().setType("FIXED_RANGE")
+                            .setStartIndex(block.getOffset()).setEndIndex(block.getEnd()))
+                        .setBulletPreset(bulletPresetFor(block.getGlyph()))));
+            }
+        }
+    }
+
+    /* Retourne le préréglage de puces Slides le plus proche du type de puce d'une liste Docs.*/
+    static String bulletPresetFor(String glyph) {
+        if (glyph == null) {
+            return "BULLET_DISC_CIRCLE_SQUARE";
+        }
+        return switch (glyph) {
+            case "DECIMAL", "ALPHA", "ROMAN" -> "NUMBERED_DIGIT_ALPHA_ROMAN";
+            case "ZERO_DECIMAL" -> "NUMBERED_ZERODIGIT_ALPHA_ROMAN";
+            case "UPPER_ALPHA" -> "NUMBERED_UPPERALPHA_ALPHA_ROMAN";
+            case "UPPER_ROMAN" -> "NUMBERED_UPPERROMAN_UPPERALPHA_DIGIT";
+            case "☐" -> "BULLET_CHECKBOX";
+            case "◆", "❖" -> "BULLET_DIAMOND_CIRCLE_SQUARE";
+            case "★" -> "BULLET_STAR_CIRCLE_SQUARE";
+            case "➔", "➢" -> "BULLET_ARROW_DIAMOND_DISC";
+            default -> "BULLET_DISC_CIRCLE_SQUARE";
+        };
+    }
+
+    /* Crée une requête appliquant le style d'un segment ; seuls les attributs non par défaut sont envoyés.*/
+    private static Request styleSpanRequest(String objectId, TextStyleSpan span) {
+        TextStyle style = new TextStyle();
+        List<String> fields = new ArrayList<>();
+        if (span.isBold()) {
+            style.setBold(true);
+            fields.add("bold");
+        }
+        if (span.isItalic()) {
+            style.setItalic(true);
+            fields.add("italic");
+        }
+        if (span.isUnderline()) {
+            style.setUnderline(true);
+            fields.add("underline");
+        }
+        if (span.isStrikethrough()) {
+            style.setStrikethrough(true);
+            fields.add("strikethrough");
+        }
+        if (span.getLinkUrl() != null) {
+            style.setLink(new Link().setUrl(span.getLinkUrl()));
+            fields.add("link");
+        }
+        return new Request()
+            .setUpdateTextStyle(new UpdateTextStyleRequest()
+                .setObjectId(objectId)
+                .setTextRange(new Range().setType("FIXED_RANGE").setStartIndex(span.getOffset()).setEndIndex(span.getEnd()))
+                .setStyle(style)
+                .setFields(String.join(",", fields)));
+    }
+
+    /* Ajoute la création d'une diapositive dont le seul contenu est un titre (titre du document ou en-tête de section).*/
+    private void buildTitleOnlySlide(List<Request> requests, String slideId, String layout, String placeholderType,
+                                     String titleText) {
+        String titlePlaceholderId = generateUniqueId("title_");
+        requests.add(new Request()
+            .setCreateSlide(new CreateSlideRequest()
+                .setObjectId(slideId)
+                .setSlideLayoutReference(layoutReference(layout))
+                .setPlaceholderIdMappings(List.of(new LayoutPlaceholderIdMapping()
+                    .setLayoutPlaceholder(new Placeholder().setType(placeholderType).setIndex(0))
+                    .setObjectId(titlePlaceholderId)))));
+        if (titleText != null && !titleText.isEmpty()) {
+            requests.add(new Request()
+                .setInsertText(new InsertTextRequest()
+                    .setObjectId(titlePlaceholderId)
+                    .setInsertionIndex(0)
+                    .setText(titleText)));
+        }
+    }
+
+    /* Ajoute l'insertion d'une image dans la diapositive, réduite pour tenir dans la zone utile et centrée
+     * lorsque sa taille est connue.*/
+    private void buildImage(List<Request> requests, String slideId, ContentElement element) {
+        String imageId = generateUniqueId("image_");
+        PageElementProperties properties = new PageElementProperties().setPageObjectId(slideId);
+        double width = element.getWidth();
+        double height = element.getHeight();
+        if (width > 0 && height > 0) {
+            // Réduction sans agrandissement, pour ne pas pixeliser les petites images
+            double scale = Math.min(1.0, Math.min((pageWidth - 2 * IMAGE_MARGIN_PT) / width,
+                    (pageHeight - 2 * IMAGE_MARGIN_PT) / height));
+            width *= scale;
+            height *= scale;
+            properties
+                .setSize(new Size()
+                    .setWidth(new Dimension().setMagnitude(width).setUnit("PT"))
+                    .setHeight(new Dimension().setMagnitude(height).setUnit("PT")))
+                .setTransform(new AffineTransform()
+                    .setScaleX(1.0)
+                    .setScaleY(1.0)
+                    .setTranslateX((pageWidth - width) / 2)
+                    .setTranslateY((pageHeight - height) / 2)
+                    .setUnit("PT"));
+        } else {
+            // Taille inconnue : insertion à la taille d'origine dans le coin supérieur gauche
+            properties.setTransform(new AffineTransform()
+                .setScaleX(1.0)
+                .setScaleY(1.0)
+                .setTranslateX(0.0)
+                .setTranslateY(0.0)
+                .setUnit("PT"));
+        }
+        requests.add(new Request()
+            .setCreateImage(new CreateImageRequest()
+                .setObjectId(imageId)
+                .setUrl(element.getImageUrl())
+                .setElementProperties(properties)));
+    }
+
+    /* Ajoute la création et le remplissage d'un tableau dans la diapositive.*/
+    private void buildTable(List<Request> requests, String slideId, ContentElement element) {
+        List<List<String>> tableData = element.getTableData();
+        if (tableData == null || tableData.isEmpty()) {
+            return;
+        }
+        int rows = tableData.size();
+        int cols = tableData.get(0).size();
+        String tableId = generateUniqueId("table_");
+        requests.add(new Request()
+            .setCreateTable(new CreateTableRequest()
+                .setObjectId(tableId)
+                .setElementProperties(new PageElementProperties()
+                    .setPageObjectId(slideId))
+                .setRows(rows)
+                .setColumns(cols)));
+        // Remplissage du tableau avec les données
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                // Les cellules vides n'ont besoin d'aucune requête
+                if (tableData.get(r).get(c).isEmpty()) {
+                    continue;
+                }
+                requests.add(new Request()
+                    .setInsertText(new InsertTextRequest()
+                        .setObjectId(tableId)
+                        .setCellLocation(new TableCellLocation().setRowIndex(r).setColumnIndex(c))
+                        .setText(tableData.get(r).get(c))));
+                requests.add(new Request()
+                    .setUpdateTextStyle(new UpdateTextStyleRequest()
+                        .setObjectId(tableId)
+                        .setCellLocation(new TableCellLocation().setRowIndex(r).setColumnIndex(c))
+                        .setTextRange(new Range().setType("ALL"))
+                        .setStyle(new TextStyle()
+                            .setFontSize(new Dimension().setMagnitude(profile.getBodyFontSizeSmall()).setUnit("PT")))
+                        .setFields("fontSize")));
+            }
+        }
+    }
+
+    /* Convertit une dimension Slides (EMU ou PT) en points, ou retourne la valeur par défaut si elle est inconnue.*/
+    static double toPoints(Dimension dimension, double defaultPt) {
+        if (dimension == null || dimension.getMagnitude() == null || dimension.getMagnitude() <= 0) {
+            return defaultPt;
+        }
+        if ("EMU".equals(dimension.getUnit())) {
+            return dimension.getMagnitude() / EMU_PER_PT;
+        }
+        return "PT".equals(dimension.getUnit()) ? dimension.getMagnitude() : defaultPt;
+    }
+
+    /* Retourne la référence à une mise en page : celle du modèle qui lui correspond, sinon la mise en page prédéfinie.*/
+    private LayoutReference layoutReference(String predefinedLayout) {
+        String layoutId = templateLayouts.get(predefinedLayout);
+        return layoutId != null ? new LayoutReference().setLayoutId(layoutId)
+                : new LayoutReference().setPredefinedLayout(predefinedLayout);
+    }
+
+    /* Crée l'insertion du texte des notes de l'orateur dans la zone de notes d'une diapositive.*/
+    static Request speakerNotesRequest(String speakerNotesObjectId, String notes) {
+        return new Request()
+            .setInsertText(new InsertTextRequest()
+                .setObjectId(speakerNotesObjectId)
+                .setInsertionIndex(0)
+                .setText(notes));
+    }
+
+    /* Retourne l'identifiant de la diapositive créée par une liste de requêtes issue de buildSlide.*/
+    static String slideIdOf(List<Request> slideRequests) {
+        return slideRequests.get(0).getCreateSlide().getObjectId();
+    }
+
+    /* Crée une requête pour définir la taille de la police pour le texte dans un objet spécifié.*/
+    static Request setFontSizeRequest(String objectId, double sizePt) {
+        return new Request()
+            .setUpdateTextStyle(new UpdateTextStyleRequest()
+                .setObjectId(objectId)
+                .setTextRange(new Range().setType("ALL"))
+                .setStyle(new TextStyle()
+                    .setFontSize(new Dimension().setMagnitude(sizePt).setUnit("PT")))
+                .setFields("fontSize"));
+    }
+
+    /*Génère un identifiant unique avec un préfixe, en s'assurant qu'il n'est pas déjà utilisé (sûr entre threads).*/
+    synchronized String generateUniqueId(String prefix) {
+        String id;
+        do {
+            id = deterministicIds ? String.format("%s%06d", prefix, ++idCounter) : prefix + UUID.randomUUID();
+        } while (usedIds.contains(id));
+        usedIds.add(id);
+        return id;
+    }
+}
@@ -1,66 +1,104 @@
 package com.myproject.gdocs2slides;
 
-import com.google.api.client.http.HttpRequest;
-import com.google.api.client.http.HttpRequestFactory;
-import com.google.api.client.http.HttpRequestInitializer;
-import com.google.api.client.http.HttpResponse;
-import com.google.api.client.http.HttpTransport;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.api.client.http.GenericUrl;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
 import com.google.api.services.docs.v1.Docs;
 import com.google.api.services.slides.v1.Slides;
 import com.google.api.services.slides.v1.model.*;
 import com.myproject.gdocs2slides.model.ContentElement;
+import com.myproject.gdocs2slides.model.PlannedSlide;
 
-import java.util.Arrays;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
-import java.util.UUID;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /* La classe SlidesWriter convertit une liste d'éléments de contenu en une présentation Google Slides,
- *  en créant des diapositives avec du texte, des images et des tableaux selon des limites de formatage prédéfinies.
+ *  en créant des diapositives avec du texte, des images et des tableaux selon les limites d'un profil de conversion.
  */
 public class SlidesWriter {
 
-    private static final int MAX_LINES_PER_SLIDE = 8;
-    private static final int MAX_WORDS_PER_SLIDE = 300;
-    private static final double TITLE_FONT_SIZE = 32.0;
-    private static final double BODY_FONT_SIZE_DEFAULT = 18.0;
-    private static final double BODY_FONT_SIZE_MEDIUM = 14.0;
-    private static final double BODY_FONT_SIZE_SMALL = 12.0;
+    private static final int MAX_THROTTLED_REQUEUES = 3; // Relances d'une tâche du pool sur une autre identité après un 429
 
-    /*Télécharge une image à partir de l'URL spécifiée en utilisant le transport HTTP et le service Slides.*/
-    private static byte[] downloadImage(String imageUrl, HttpTransport httpTransport, Slides slidesService) 
-            throws IOException {
-        // Création d'une usine de requêtes HTTP pour initialiser les requêtes
-        HttpRequestFactory requestFactory = httpTransport.createRequestFactory(new HttpRequestInitializer() {
-            @Override
-            public void initialize(HttpRequest request) throws IOException {
-                slidesService.getRequestFactory().getInitializer().initialize(request);
+    /* Vérifie qu'une image est accessible en lisant seulement son en-tête, et complète sa taille si le document
+     * ne la donnait pas. Retourne la diapositive à créer, vide si l'image est inaccessible.*/
+    static PlannedSlide resolveImage(PlannedSlide plannedSlide, ImageProbe imageProbe) {
+        ContentElement element = plannedSlide.getElement();
+        String imageUrl = element.getImageUrl();
+        System.out.println("Processing image: " + imageUrl);
+        try {
+            ImageProbe.Dimensions dimensions = imageProbe.probe(imageUrl);
+            if (dimensions != null && (element.getWidth() <= 0 || element.getHeight() <= 0)) {
+                // Pixels convertis en points à 96 ppp
+                element.setWidth(dimensions.getWidth() * 0.75);
+                element.setHeight(dimensions.getHeight() * 0.75);
             }
-        });
-        // Construction et exécution de la requête GET pour télécharger l'image
-        HttpRequest request = requestFactory.buildGetRequest(new GenericUrl(imageUrl));
-        HttpResponse response = request.execute();
-        System.out.println("Downloaded image from: " + imageUrl + ", size: " + response.getContent().available() 
-                +" bytes");
-        // Lecture et retour des données de l'image sous forme de tableau de bytes
-        return response.getContent().readAllBytes();
+            return plannedSlide;
+        } catch (IOException e) {
+            System.err.println("Failed to download or insert image: " + imageUrl);
+            e.printStackTrace();
+            return new PlannedSlide(PlannedSlide.SlideKind.BLANK);
+        }
     }
 
-    /* Convertit une liste d'éléments de contenu en une présentation Google Slides.*/
+    /* Convertit une liste d'éléments de contenu en une présentation Google Slides avec le profil standard.*/
     public static String convertToSlides(Slides slidesService, String title, List<ContentElement> contentElements) 
             throws IOException {
+        return convertToSlides(slidesService, title, contentElements, ConversionProfile.STANDARD);
+    }
+
+    /* Convertit une liste d'éléments de contenu en une présentation Google Slides selon le profil de conversion donné.*/
+    public static String convertToSlides(Slides slidesService, String title, List<ContentElement> contentElements,
+            ConversionProfile profile) throws IOException {
+        return convertToSlides(slidesService, title, contentElements, profile, null);
+    }
+
+    /* Convertit une liste d'éléments de contenu en une présentation Google Slides selon le profil de conversion donné,
+     * à partir d'une copie du modèle donné s'il n'est pas nul.*/
+    public static String convertToSlides(Slides slidesService, String title, List<ContentElement> contentElements,
+            ConversionProfile profile, DeckTemplate template) throws IOException {
         // Vérification que la liste des éléments de contenu n'est pas nulle ou vide
         if (contentElements == null || contentElements.isEmpty()) {
             throw new IllegalArgumentException("Content elements cannot be null or empty");
         }
 
+        // Planification des diapositives avant tout appel à l'API
+        List<PlannedSlide> plannedSlides = SlidePlanner.plan(contentElements, profile);
+
+        String presentationId;
+        SlideRequestBuilder requestBuilder;
+        AdaptiveBatcher.Session batches;
+        if (template == null) {
+            presentationId = createPresentation(slidesService, title);
+            requestBuilder = new SlideRequestBuilder(profile, false);
+            batches = AdaptiveBatcher.getDefault().open(slidesService, presentationId);
+        } else {
+            // Copie du modèle ; ses jetons sont remplacés dans le premier lot, avec les premières diapositives
+            requestBuilder = new SlideRequestBuilder(profile, false, template.getLayouts(slidesService),
+                    template.getPageSize(slidesService));
+            presentationId = template.copy(title);
+            batches = AdaptiveBatcher.getDefault().open(slidesService, presentationId);
+            batches.add(template.tokenRequests(title));
+        }
+        writeSlides(batches, slidesService, presentationId, plannedSlides, requestBuilder);
+        batches.flush();
+
+        // Génération de l'URL de la présentation
+        String presentationUrl = presentationUrl(presentationId);
+        System.out.println("Created presentation: " + presentationUrl);
+        return presentationUrl;
+    }
+
+    /* Crée une présentation vide dont le titre est suivi d'un horodatage, et retourne son identifiant.*/
+    static String createPresentation(Slides slidesService, String title) throws IOException {
         // Création d'un horodatage pour le titre de la présentation
         SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm");
         String timestamp = sdf.format(new Date());
@@ -68,272 +106,145 @@ public class SlidesWriter {
 
         // Création d'une nouvelle présentation avec le titre complet
         Presentation presentation = slidesService.presentations().create(new Presentation().setTitle(fullTitle)).execute();
-        String presentationId = presentation.getPresentationId();
+        return presentation.getPresentationId();
+    }
 
-        // Initialisation des listes pour les requêtes et les identifiants utilisés
-        List<Request> requests = new ArrayList<>();
-        Set<String> usedIds = new HashSet<>();
-        String lastSectionTitle = "";
-        List<ContentElement> currentParagraphs = new ArrayList<>();
-
-        // Parcours des éléments de contenu pour organiser les slides
-        for (int i = 0; i < contentElements.size(); i++) {
-            ContentElement element = contentElements.get(i);
-            if (element.getType() == ContentElement.ElementType.SECTION_TITLE) {
-                // Si des paragraphes sont en attente, créer des slides pour eux
-                if (!currentParagraphs.isEmpty()) {
-                    createSlidesForParagraphs(slidesService, presentationId, usedIds, lastSectionTitle, currentParagraphs);
-                    currentParagraphs.clear();
-                }
-                lastSectionTitle = element.getText();
-            } else if (element.getType() == ContentElement.ElementType.PARAGRAPH) {
-                // Gestion des paragraphes en fonction de leur longueur
-                String[] words = element.getText().split("\\s+");
-                int paraWordCount = words.length;
-                if (paraWordCount > MAX_WORDS_PER_SLIDE) {
-                    // Si le paragraphe est trop long, créer des slides séparés
-                    if (!currentParagraphs.isEmpty()) {
-                        createSlidesForParagraphs(slidesService, presentationId, usedIds, lastSectionTitle, currentParagraphs);
-                        currentParagraphs.clear();
-                    }
-                    String paraText = element.getText();
-                    String[] paraWords = paraText.split("\\s+");
-                    StringBuilder chunk = new StringBuilder();
-                    int chunkWordCount = 0;
-                    // Division du paragraphe en morceaux respectant la limite de mots
-                    for (String word : paraWords) {
-                        if (chunkWordCount + 1 > MAX_WORDS_PER_SLIDE) {
-                            createSlideWithText(slidesService, presentationId, usedIds, lastSectionTitle, chunk.toString());
-                            chunk.setLength(0);
-                            chunkWordCount = 0;
-                        }
-                        if (chunk.length() > 0) {
-                            chunk.append(" ");
-                        }
-                        chunk.append(word);
-                        chunkWordCount++;
-                    }
-                    // Création d'un slide pour le dernier morceau, s'il existe
-                    if (chunk.length() > 0) {
-                        createSlideWithText(slidesService, presentationId, usedIds, lastSectionTitle, chunk.toString());
-                    }
-                } else {
-                    currentParagraphs.add(element);
-                }
-            } else {
-                // Gestion des éléments non textuels (images, tableaux)
-                if (!currentParagraphs.isEmpty()) {
-                    createSlidesForParagraphs(slidesService, presentationId, usedIds, lastSectionTitle, currentParagraphs);
-                    currentParagraphs.clear();
-                }
-                String currentSlideId = generateUniqueId("slide_", usedIds);
-                // Création d'une nouvelle diapositive vierge
-                requests.add(new Request()
-                    .setCreateSlide(new CreateSlideRequest()
-                        .setObjectId(currentSlideId)
-                        .setSlideLayoutReference(new LayoutReference().setPredefinedLayout("BLANK"))));
-                slidesService.presentations()
-                    .batchUpdate(presentationId, new BatchUpdatePresentationRequest().setRequests(requests))
-                    .execute();
-                requests.clear();
-
-                if (element.getType() == ContentElement.ElementType.IMAGE) {
-                    // Insertion d'une image dans la diapositive
-                    String imageUrl = element.getImageUrl();
-                    System.out.println("Processing image: " + imageUrl);
-                    try {
-                        byte[] imageData = downloadImage(imageUrl, new NetHttpTransport(), slidesService);
-                        String imageId = generateUniqueId("image_", usedIds);
-                        requests.add(new Request()
-                            .setCreateImage(new CreateImageRequest()
-                                .setObjectId(imageId)
-                                .setUrl(imageUrl)
-                                .setElementProperties(new PageElementProperties()
-                                    .setPageObjectId(currentSlideId)
-                                    .setTransform(new AffineTransform()
-                                        .setScaleX(1.0)
-                                        .setScaleY(1.0)
-                                        .setTranslateX(0.0)
-                                        .setTranslateY(0.0)
-                                        .setUnit("PT")))));
-                        System.out.println("Image inserted on its own slide: " + currentSlideId);
-                    } catch (IOException e) {
-                        System.err.println("Failed to download or insert image: " + imageUrl);
-                        e.printStackTrace();
-                    }
-                } else if (element.getType() == ContentElement.ElementType.TABLE) {
-                    // Insertion d'un tableau dans la diapositive
-                    List<List<String>> tableData = element.getTableData();
-                    if (tableData != null && !tableData.isEmpty()) {
-                        int rows = tableData.size();
-                        int cols = tableData.get(0).size();
-                        String tableId = generateUniqueId("table_", usedIds);
-                        requests.add(new Request()
-                            .setCreateTable(new CreateTableRequest()
-                                .setObjectId(tableId)
-                                .setElementProperties(new PageElementProperties()
-                                    .setPageObjectId(currentSlideId))
-                                .setRows(rows)
-                                .setColumns(cols)));
-                        // Remplissage du tableau avec les données
-                        for (int r = 0; r < rows; r++) {
-                            for (int c = 0; c < cols; c++) {
-                                requests.add(new Request()
-                                    .setInsertText(new InsertTextRequest()
-                                        .setObjectId(tableId)
-                                        .setCellLocation(new TableCellLocation().setRowIndex(r).setColumnIndex(c))
-                                        .setText(tableData.get(r).get(c))));
-                                requests.add(new Request()
-                                    .setUpdateTextStyle(new UpdateTextStyleRequest()
-                                        .setObjectId(tableId)
-                                        .setCellLocation(new TableCellLocation().setRowIndex(r).setColumnIndex(c))
-                                        .setTextRange(new Range().setType("ALL"))
-                                        .setStyle(new TextStyle()
-                                            .setFontSize(new Dimension().setMagnitude(BODY_FONT_SIZE_SMALL).setUnit("PT")))
-                                        .setFields("fontSize")));
-                            }
-                        }
-                    }
-                }
-                // Exécution des requêtes pour insérer l'élément
-                slidesService.presentations()
-                    .batchUpdate(presentationId, new BatchUpdatePresentationRequest().setRequests(requests))
-                    .execute();
-                requests.clear();
-            }
-        }
+    /* Écrit le contenu donné dans une présentation vide déjà créée ; chaque lot refusé par un 429 appelle
+     * throttleHandler avant d'être renvoyé.*/
+    static String writePresentation(Slides slidesService, String presentationId, List<ContentElement> contentElements,
+            ConversionProfile profile, AdaptiveBatcher.ThrottleHandler throttleHandler) throws IOException {
+        List<PlannedSlide> plannedSlides = SlidePlanner.plan(contentElements, profile);
+        AdaptiveBatcher.Session batches = AdaptiveBatcher.getDefault().open(slidesService, presentationId, throttleHandler);
+        writeSlides(batches, slidesService, presentationId, plannedSlides, new SlideRequestBuilder(profile, false));
+        batches.flush();
+        String presentationUrl = presentationUrl(presentationId);
+        System.out.println("Created presentation: " + presentationUrl);
+        return presentationUrl;
+    }
 
-        // Création des slides pour les paragraphes restants
-        if (!currentParagraphs.isEmpty()) {
-            createSlidesForParagraphs(slidesService, presentationId, usedIds, lastSectionTitle, currentParagraphs);
+    /* Réécrit une présentation existante avec le contenu donné, ce qui garde le même identifiant et le même lien pour
+     * une présentation synchronisée : les nouvelles diapositives sont ajoutées après les anciennes, qui ne sont
+     * supprimées que dans les derniers lots. Un échec en cours de route laisse donc l'ancien contenu en place,
+     * suivi d'une partie du nouveau, plutôt qu'une présentation vidée.*/
+    public static String rewritePresentation(Slides slidesService, String presentationId,
+            List<ContentElement> contentElements, ConversionProfile profile) throws IOException {
+        if (contentElements == null || contentElements.isEmpty()) {
+            throw new IllegalArgumentException("Content elements cannot be null or empty");
         }
+        List<PlannedSlide> plannedSlides = SlidePlanner.plan(contentElements, profile);
 
-        // Génération de l'URL de la présentation
-        String presentationUrl = "https://docs.google.com/presentation/d/" + presentationId + "/edit";
-        System.out.println("Created presentation: " + presentationUrl);
+        // Lecture des seuls identifiants des diapositives existantes, à supprimer une fois les nouvelles écrites
+        Presentation presentation = slidesService.presentations().get(presentationId)
+            .setFields("slides(objectId)").execute();
+        List<Request> deletions = new ArrayList<>();
+        if (presentation.getSlides() != null) {
+            for (Page slide : presentation.getSlides()) {
+                deletions.add(new Request().setDeleteObject(new DeleteObjectRequest().setObjectId(slide.getObjectId())));
+            }
+        }
+        AdaptiveBatcher.Session batches = AdaptiveBatcher.getDefault().open(slidesService, presentationId);
+        writeSlides(batches, slidesService, presentationId, plannedSlides, new SlideRequestBuilder(profile, false));
+        // Les suppressions forment un groupe à part, envoyé après toutes les créations
+        batches.add(deletions);
+        batches.flush();
+        String presentationUrl = presentationUrl(presentationId);
+        System.out.println("Rewrote presentation: " + presentationUrl);
         return presentationUrl;
     }
 
-    /*Crée des diapositives pour une liste de paragraphes, en les divisant selon les limites de lignes et de mots.*/
-    private static void createSlidesForParagraphs(Slides slidesService, String presentationId, Set<String> usedIds, String lastSectionTitle, List<ContentElement> paragraphs) throws IOException {
-        // Concaténation de tous les paragraphes en un seul texte
-        StringBuilder allText = new StringBuilder();
-        for (ContentElement para : paragraphs) {
-            if (allText.length() > 0) {
-                allText.append("\n");
+    /* Ajoute les diapositives planifiées à la session d'envoi ; chaque diapositive reste dans un même lot
+     * tant qu'elle tient dans la taille cible. L'appelant envoie le dernier lot avec flush().*/
+    private static void writeSlides(AdaptiveBatcher.Session batches, Slides slidesService, String presentationId,
+            List<PlannedSlide> plannedSlides, SlideRequestBuilder requestBuilder) throws IOException {
+        Map<String, String> speakerNotes = new LinkedHashMap<>();
+        ImageProbe imageProbe = new ImageProbe(slidesService.getRequestFactory());
+        for (PlannedSlide plannedSlide : plannedSlides) {
+            if (plannedSlide.getKind() == PlannedSlide.SlideKind.IMAGE) {
+                // Vérification que l'image est accessible avant de l'insérer
+                plannedSlide = resolveImage(plannedSlide, imageProbe);
             }
-            allText.append(para.getText());
-        }
-        // Division du texte en lignes
-        String[] lines = allText.toString().split("\n");
-        List<String> slideLines = new ArrayList<>();
-        int slideWordCount = 0;
-
-        // Parcours des lignes pour organiser les diapositives
-        for (String line : lines) {
-            String[] words = line.split("\\s+");
-            int lineWordCount = words.length;
-            // Si la diapositive est pleine, créer une nouvelle diapositive
-            if (slideLines.size() >= MAX_LINES_PER_SLIDE || slideWordCount + lineWordCount > MAX_WORDS_PER_SLIDE) {
-                String chunkText = String.join("\n", slideLines);
-                createSlideWithText(slidesService, presentationId, usedIds, lastSectionTitle, chunkText);
-                slideLines.clear();
-                slideWordCount = 0;
+            List<Request> requests = requestBuilder.buildSlide(plannedSlide);
+            if (plannedSlide.getSpeakerNotes() != null) {
+                speakerNotes.put(SlideRequestBuilder.slideIdOf(requests), plannedSlide.getSpeakerNotes());
             }
-            slideLines.add(line);
-            slideWordCount += lineWordCount;
-        }
-        // Création d'une diapositive pour les lignes restantes
-        if (!slideLines.isEmpty()) {
-            String chunkText = String.join("\n", slideLines);
-            createSlideWithText(slidesService, presentationId, usedIds, lastSectionTitle, chunkText);
+            batches.add(requests);
         }
+        writeSpeakerNotes(batches, slidesService, presentationId, speakerNotes);
     }
 
-    /* Crée une diapositive unique avec un titre et un texte de corps, en ajustant la taille de la police selon la longueur du contenu.*/
-    private static void createSlideWithText(Slides slidesService, String presentationId, Set<String> usedIds, String titleText, String bodyText) throws IOException {
-        // Génération d'un identifiant unique pour la diapositive
-        String slideId = generateUniqueId("slide_", usedIds);
+    /* Ajoute à la session l'insertion des notes de l'orateur des diapositives données. La zone de notes d'une
+     * diapositive n'est connue qu'après sa création : une seule lecture, limitée aux identifiants de ces zones,
+     * sert pour toute la présentation.*/
+    static void writeSpeakerNotes(AdaptiveBatcher.Session batches, Slides slidesService, String presentationId,
+            Map<String, String> notesBySlideId) throws IOException {
+        if (notesBySlideId.isEmpty()) {
+            return;
+        }
+        // Les diapositives en attente doivent exister avant la lecture de leurs pages de notes
+        batches.flush();
+        Presentation presentation = slidesService.presentations().get(presentationId)
+            .setFields("slides(objectId,slideProperties/notesPage/notesProperties/speakerNotesObjectId)").execute();
         List<Request> requests = new ArrayList<>();
-        // Création d'une diapositive avec une mise en page titre et corps
-        requests.add(new Request()
-            .setCreateSlide(new CreateSlideRequest()
-                .setObjectId(slideId)
-                .setSlideLayoutReference(new LayoutReference().setPredefinedLayout("TITLE_AND_BODY"))));
-        slidesService.presentations()
-            .batchUpdate(presentationId, new BatchUpdatePresentationRequest().setRequests(requests))
-            .execute();
-        requests.clear();
-
-        // Recherche des identifiants des placeholders dans la diapositive
-        Presentation presentation = slidesService.presentations().get(presentationId).execute();
-        String titlePlaceholderId = null;
-        String bodyPlaceholderId = null;
-        for (Page slide : presentation.getSlides()) {
-            if (slide.getObjectId().equals(slideId)) {
-                for (PageElement el : slide.getPageElements()) {
-                    if (el.getShape() != null && el.getShape().getPlaceholder() != null) {
-                        String placeholderType = el.getShape().getPlaceholder().getType();
-                        if ("TITLE".equals(placeholderType) || "CENTERED_TITLE".equals(placeholderType)) {
-                            titlePlaceholderId = el.getObjectId();
-                        } else if ("BODY".equals(placeholderType)) {
-                            bodyPlaceholderId = el.getObjectId();
-                        }
-                    }
+        if (presentation.getSlides() != null) {
+            for (Page slide : presentation.getSlides()) {
+                String notes = notesBySlideId.get(slide.getObjectId());
+                if (notes == null) {
+                    continue;
                 }
+                String notesObjectId = slide.getSlideProperties() == null
+                        || slide.getSlideProperties().getNotesPage() == null
+                        || slide.getSlideProperties().getNotesPage().getNotesProperties() == null
+                        ? null : slide.getSlideProperties().getNotesPage().getNotesProperties().getSpeakerNotesObjectId();
+                if (notesObjectId == null) {
+                    // Diapositive sans zone de notes de l'orateur : le texte débordant n'est pas écrit
+                    System.err.println("Warning: no speaker notes shape on slide " + slide.getObjectId()
+                            + ", speaker notes skipped");
+                    continue;
+                }
+                requests.add(SlideRequestBuilder.speakerNotesRequest(notesObjectId, notes));
             }
         }
-
-        // Insertion du texte du titre, si disponible
-        if (titleText != null && !titleText.isEmpty() && titlePlaceholderId != null) {
-            requests.add(new Request()
-                .setInsertText(new InsertTextRequest()
-                    .setObjectId(titlePlaceholderId)
-                    .setInsertionIndex(0)
-                    .setText(titleText)));
-            requests.add(setFontSizeRequest(titlePlaceholderId, TITLE_FONT_SIZE));
-        }
-        // Insertion du texte du corps, avec ajustement de la taille de police
-        if (bodyText != null && !bodyText.isEmpty() && bodyPlaceholderId != null) {
-            requests.add(new Request()
-                .setInsertText(new InsertTextRequest()
-                    .setObjectId(bodyPlaceholderId)
-                    .setInsertionIndex(0)
-                    .setText(bodyText)));
-            double bodyFontSize = bodyText.length() > 800 ? BODY_FONT_SIZE_SMALL :
-                                 bodyText.length() > 500 ? BODY_FONT_SIZE_MEDIUM : BODY_FONT_SIZE_DEFAULT;
-            requests.add(setFontSizeRequest(bodyPlaceholderId, bodyFontSize));
-        }
-
-        // Exécution des requêtes pour insérer le texte
-        slidesService.presentations()
-            .batchUpdate(presentationId, new BatchUpdatePresentationRequest().setRequests(requests))
-            .execute();
+        batches.add(requests);
     }
 
-    /* Crée une requête pour définir la taille de la police pour le texte dans un objet spécifié.*/
-    private static Request setFontSizeRequest(String objectId, double sizePt) {
-        return new Request()
-            .setUpdateTextStyle(new UpdateTextStyleRequest()
-                .setObjectId(objectId)
-                .setTextRange(new Range().setType("ALL"))
-                .setStyle(new TextStyle()
-                    .setFontSize(new Dimension().setMagnitude(sizePt).setUnit("PT")))
-                .setFields("fontSize"));
+    /* Retourne l'URL d'édition d'une présentation.*/
+    static String presentationUrl(String presentationId) {
+        return "https://docs.google.com/presentation/d/" + presentationId + "/edit";
     }
 
-    /*Génère un identifiant unique avec un préfixe, en s'assurant qu'il n'est pas déjà utilisé.*/
-    private static String generateUniqueId(String prefix, Set<String> usedIds) {
-        String id;
-        do {
-            id = prefix + UUID.randomUUID().toString();
-        } while (usedIds.contains(id));
-        usedIds.add(id);
-        return id;
+    /* Estime le coût d'une conversion (diapositives, appels API, requêtes) sans aucun appel à l'API Slides.*/
+    public static ConversionEstimate estimate(List<ContentElement> contentElements, ConversionProfile profile) {
+        List<PlannedSlide> plannedSlides = SlidePlanner.plan(contentElements, profile);
+        SlideRequestBuilder requestBuilder = new SlideRequestBuilder(profile, true);
+        List<List<Request>> groups = new ArrayList<>();
+        List<Request> notesRequests = new ArrayList<>();
+        int requestCount = 0;
+        for (PlannedSlide plannedSlide : plannedSlides) {
+            List<Request> requests = requestBuilder.buildSlide(plannedSlide);
+            requestCount += requests.size();
+            groups.add(requests);
+            if (plannedSlide.getSpeakerNotes() != null) {
+                notesRequests.add(SlideRequestBuilder.speakerNotesRequest(
+                        SlideRequestBuilder.slideIdOf(requests) + "_notes", plannedSlide.getSpeakerNotes()));
+            }
+        }
+        // Création de la présentation, puis les batchUpdate découpés selon les tailles cibles actuelles
+        int apiCalls = 1 + AdaptiveBatcher.getDefault().projectBatchCount(groups);
+        if (!notesRequests.isEmpty()) {
+            // Lecture des zones de notes, puis leurs insertions
+            requestCount += notesRequests.size();
+            apiCalls += 1 + AdaptiveBatcher.getDefault().projectBatchCount(List.of(notesRequests));
+        }
+        return new ConversionEstimate(profile, plannedSlides.size(), apiCalls, requestCount);
     }
 
     /*Convertit un Google Doc en une présentation Google Slides en utilisant un titre par défaut.*/
     public static String convert(String docId) throws Exception {
+        return convert(docId, ConversionProfile.STANDARD);
+    }
+
+    /*Convertit un Google Doc en une présentation Google Slides selon le profil de conversion donné.*/
+    public static String convert(String docId, ConversionProfile profile) throws Exception {
         // Initialisation des services Docs et Slides
         Docs docsService = GoogleServiceUtil.getDocsService();
         Slides slidesService = GoogleServiceUtil.getSlidesService();
@@ -341,6 +252,149 @@ public class SlidesWriter {
         List<ContentElement> content = DocsReader.extractContent(docsService, docId);
         String title = "Converted Google Doc";
         // Conversion en présentation
-        return convertToSlides(slidesService, title, content);
+        return convertToSlides(slidesService, title, content, profile);
+    }
+
+    /*Convertit un Google Doc en une présentation construite à partir d'une copie de la présentation modèle donnée.*/
+    public static String convert(String docId, ConversionProfile profile, String templateId) throws Exception {
+        Docs docsService = GoogleServiceUtil.getDocsService();
+        // Seule la conversion à partir d'un modèle demande les portées Drive, avec un jeton distinct
+        Slides slidesService = GoogleServiceUtil.getTemplateSlidesService();
+        List<ContentElement> content = DocsReader.extractContent(docsService, docId);
+        return convertToSlides(slidesService, "Converted Google Doc", content, profile,
+                DeckTemplate.drive(templateId, slidesService));
+    }
+
+    /*Convertit un Google Doc avec l'écrivain en pipeline, en gardant jusqu'à maxInFlight batchUpdate en cours.*/
+    public static String convertAsync(String docId, ConversionProfile profile, int maxInFlight) throws Exception {
+        return convertAsync(docId, profile, maxInFlight, null);
+    }
+
+    /*Convertit un Google Doc avec l'écrivain en pipeline, à partir d'une copie du modèle donné s'il n'est pas nul.*/
+    public static String convertAsync(String docId, ConversionProfile profile, int maxInFlight, String templateId)
+            throws Exception {
+        Docs docsService = GoogleServiceUtil.getDocsService();
+        Slides slidesService = templateId == null ? GoogleServiceUtil.getSlidesService()
+                : GoogleServiceUtil.getTemplateSlidesService();
+        List<ContentElement> content = DocsReader.extractContent(docsService, docId);
+        AsyncSlidesWriter writer = new AsyncSlidesWriter(slidesService, profile,
+                AsyncSlidesWriter.DEFAULT_WORKER_THREADS, maxInFlight,
+                templateId == null ? null : DeckTemplate.drive(templateId, slidesService));
+        return writer.convertToSlides("Converted Google Doc", content);
+    }
+
+    /*Estime le coût de conversion d'un Google Doc pour chaque profil donné ; seule l'API Docs est appelée.*/
+    public static List<ConversionEstimate> estimate(String docId, List<ConversionProfile> profiles) throws Exception {
+        Docs docsService = GoogleServiceUtil.getDocsService();
+        List<ContentElement> content = DocsReader.extractContent(docsService, docId);
+        List<ConversionEstimate> estimates = new ArrayList<>();
+        for (ConversionProfile profile : profiles) {
+            estimates.add(estimate(content, profile));
+        }
+        return estimates;
+    }
+
+    /*Exécute la conversion à blanc d'un Google Doc : le plan de requêtes est écrit sur disque, seule l'API Docs est appelée.*/
+    public static DryRunReport dryRun(String docId, ConversionProfile profile, Path output, boolean ndjson)
+            throws Exception {
+        Docs docsService = GoogleServiceUtil.getDocsService();
+        List<ContentElement> content = DocsReader.extractContent(docsService, docId);
+        return DryRunWriter.write("Converted Google Doc", content, profile, output, ndjson);
+    }
+
+    /*Convertit plusieurs Google Docs en parallèle, chaque conversion utilisant un client attribué par le pool d'identités.*/
+    public static Map<String, String> convertAll(List<String> docIds, ConversionProfile profile, CredentialPool pool)
+            throws Exception {
+        ExecutorService jobs = Executors.newFixedThreadPool(pool.size());
+        Map<String, Future<String>> pending = new LinkedHashMap<>();
+        try {
+            // Une tâche par document ; le nombre de tâches simultanées suit le nombre d'identités
+            for (String docId : docIds) {
+                pending.put(docId, jobs.submit(() -> convertWithPool(docId, profile, pool)));
+            }
+
+            Map<String, String> presentationUrls = new LinkedHashMap<>();
+            for (Map.Entry<String, Future<String>> entry : pending.entrySet()) {
+                try {
+                    presentationUrls.put(entry.getKey(), entry.getValue().get());
+                } catch (ExecutionException e) {
+                    // Un document en échec ne bloque pas la conversion des suivants
+                    System.err.println("Failed to convert document: " + entry.getKey());
+                    e.getCause().printStackTrace();
+                }
+            }
+            for (String line : pool.usageReport()) {
+                System.out.println("  " + line);
+            }
+            return presentationUrls;
+        } finally {
+            jobs.shutdownNow();
+        }
+    }
+
+    /*Convertit un Google Doc avec une identité du pool. Un 429 avant la création de la présentation rend l'identité
+     * et relance la tâche sur une autre, un nombre limité de fois ; ensuite la présentation appartient à l'identité,
+     * et chaque lot limité rend l'identité au pool le temps de sa pause avant d'être renvoyé.*/
+    private static String convertWithPool(String docId, ConversionProfile profile, CredentialPool pool) throws Exception {
+        List<ContentElement> content = null;
+        for (int attempt = 0; ; attempt++) {
+            try (CredentialPool.Lease lease = pool.acquire()) {
+                System.out.println("Converting " + docId + " as " + lease.getIdentityName());
+                String presentationId;
+                try {
+                    if (content == null) {
+                        content = DocsReader.extractContent(lease.getDocsService(), docId);
+                    }
+                    if (content.isEmpty()) {
+                        throw new IllegalArgumentException("Content elements cannot be null or empty");
+                    }
+                    presentationId = createPresentation(lease.getSlidesService(), "Converted Google Doc");
+                } catch (GoogleJsonResponseException e) {
+                    if (e.getStatusCode() != 429 || attempt >= MAX_THROTTLED_REQUEUES) {
+                        throw e;
+                    }
+                    System.err.println("Requeuing " + docId + " after throttling of " + lease.getIdentityName());
+                    continue;
+                }
+                return writePresentation(lease.getSlidesService(), presentationId, content, profile, () -> {
+                    try {
+                        lease.requeue();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Interrupted while waiting for " + lease.getIdentityName());
+                    }
+                });
+            }
+        }
+    }
+
+    /*Convertit plusieurs Google Docs à la suite avec le profil standard.*/
+    public static Map<String, String> convertAll(List<String> docIds) throws Exception {
+        return convertAll(docIds, ConversionProfile.STANDARD);
+    }
+
+    /*Convertit plusieurs Google Docs à la suite, en préchargeant les documents suivants pendant l'écriture du courant.*/
+    public static Map<String, String> convertAll(List<String> docIds, ConversionProfile profile) throws Exception {
+        // Initialisation des services Docs et Slides
+        Docs docsService = GoogleServiceUtil.getDocsService();
+        Slides slidesService = GoogleServiceUtil.getSlidesService();
+        Map<String, String> presentationUrls = new LinkedHashMap<>();
+        String title = "Converted Google Doc";
+
+        // Les appels documents.get des documents suivants se chevauchent avec l'écriture Slides du courant
+        try (PrefetchingDocsReader reader = new PrefetchingDocsReader(docsService, docIds)) {
+            for (String docId : docIds) {
+                try {
+                    PrefetchingDocsReader.PrefetchedDocument document = reader.next();
+                    presentationUrls.put(document.getDocumentId(),
+                            convertToSlides(slidesService, title, document.getContent(), profile));
+                } catch (IOException e) {
+                    // Un document en échec ne bloque pas la conversion des suivants
+                    System.err.println("Failed to convert document: " + docId);
+                    e.printStackTrace();
+                }
+            }
+        }
+        return presentationUrls;
     }
 }
@@ -0,0 +1,123 @@
+package com.myproject.gdocs2slides.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/* La classe TextStyleSpan représente un segment de texte stylé (gras, italique, souligné, barré, lien)
+ *  sous la forme compacte d'un décalage et d'une longueur dans le texte de l'élément.
+ */
+public class TextStyleSpan {
+
+    private final int offset;
+    private final int length;
+    private final boolean bold;
+    private final boolean italic;
+    private final boolean underline;
+    private final boolean strikethrough;
+    private final String linkUrl;
+
+    /* Construit un segment stylé avec toutes les propriétés spécifiées.*/
+    public TextStyleSpan(int offset, int length, boolean bold, boolean italic, boolean underline, boolean strikethrough,
+                         String linkUrl) {
+        this.offset = offset;
+        this.length = length;
+        this.bold = bold;
+        this.italic = italic;
+        this.underline = underline;
+        this.strikethrough = strikethrough;
+        this.linkUrl = linkUrl;
+    }
+
+    /* Retourne une copie du segment avec un autre décalage et une autre longueur.*/
+    public TextStyleSpan withRange(int newOffset, int newLength) {
+        return new TextStyleSpan(newOffset, newLength, bold, italic, underline, strikethrough, linkUrl);
+    }
+
+    /* Indique si le segment ne porte aucun style (texte par défaut).*/
+    public boolean isDefault() {
+        return !bold && !italic && !underline && !strikethrough && linkUrl == null;
+    }
+
+    /* Indique si deux segments portent exactement le même style.*/
+    public boolean sameStyleAs(TextStyleSpan other) {
+        return bold == other.bold && italic == other.italic && underline == other.underline
+                && strikethrough == other.strikethrough && Objects.equals(linkUrl, other.linkUrl);
+    }
+
+    /* Fusionne les segments consécutifs de même style, contigus ou séparés seulement par un saut de ligne.
+     * Les segments doivent être triés par décalage.*/
+    public static List<TextStyleSpan> coalesce(List<TextStyleSpan> spans, String text) {
+        List<TextStyleSpan> merged = new ArrayList<>();
+        for (TextStyleSpan span : spans) {
+            if (span.isDefault() || span.length <= 0) {
+                continue;
+            }
+            if (!merged.isEmpty()) {
+                TextStyleSpan last = merged.get(merged.size() - 1);
+                int gap = span.offset - last.getEnd();
+                boolean adjacent = gap == 0 || (gap == 1 && text != null && last.getEnd() < text.length()
+                        && text.charAt(last.getEnd()) == '\n');
+                if (adjacent && last.sameStyleAs(span)) {
+                    merged.set(merged.size() - 1, last.withRange(last.offset, span.getEnd() - last.offset));
+                    continue;
+                }
+            }
+            merged.add(span);
+        }
+        return merged;
+    }
+
+    /* Retourne les segments compris dans l'intervalle [start, end), tronqués et décalés pour commencer à 0.*/
+    public static List<TextStyleSpan> slice(List<TextStyleSpan> spans, int start, int end) {
+        List<TextStyleSpan> sliced = new ArrayList<>();
+        for (TextStyleSpan span : spans) {
+            int from = Math.max(span.offset, start);
+            int to = Math.min(span.getEnd(), end);
+            if (from < to) {
+                sliced.add(span.withRange(from - start, to - from));
+            }
+        }
+        return sliced;
+    }
+
+    /* Retourne le décalage du segment dans le texte.*/
+    public int getOffset() {
+        return offset;
+    }
+
+    /* Retourne la longueur du segment.*/
+    public int getLength() {
+        return length;
+    }
+
+    /* Retourne la position de fin (exclue) du segment.*/
+    public int getEnd() {
+        return offset + length;
+    }
+
+    /* Indique si le segment est en gras.*/
+    public boolean isBold() {
+        return bold;
+    }
+
+    /* Indique si le segment est en italique.*/
+    public boolean isItalic() {
+        return italic;
+    }
+
+    /* Indique si le segment est souligné.*/
+    public boolean isUnderline() {
+        return underline;
+    }
+
+    /* Indique si le segment est barré.*/
+    public boolean isStrikethrough() {
+        return strikethrough;
+    }
+
+    /* Retourne l'URL du lien porté par le segment, ou null.*/
+    public String getLinkUrl() {
+        return linkUrl;
+    }
+}
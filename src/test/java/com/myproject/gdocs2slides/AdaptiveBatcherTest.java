@@ -0,0 +1,144 @@
+package com.myproject.gdocs2slides;
+
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.json.Json;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.api.services.slides.v1.Slides;
+import com.google.api.services.slides.v1.model.CreateSlideRequest;
+import com.google.api.services.slides.v1.model.InsertTextRequest;
+import com.google.api.services.slides.v1.model.Request;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/* Tests de la classe AdaptiveBatcher : découpage en lots et ajustement des tailles cibles.*/
+class AdaptiveBatcherTest {
+
+    @Test
+    void slidesAreGroupedUpToTheTargetRequestCount() {
+        AdaptiveBatcher batcher = new AdaptiveBatcher();
+        List<List<Request>> groups = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            groups.add(List.of(insertText("a"), insertText("b"), insertText("c"), insertText("d")));
+        }
+        // 240 requêtes par groupes de 4 pour une cible de 100 : 25 groupes par lot, sans couper un groupe
+        assertEquals(3, batcher.projectBatchCount(groups));
+    }
+
+    @Test
+    void aGroupLargerThanTheTargetIsSplit() {
+        AdaptiveBatcher batcher = new AdaptiveBatcher();
+        assertEquals(3, batcher.projectBatchCount(List.of(Collections.nCopies(250, insertText("x")))));
+    }
+
+    @Test
+    void aFastFullBatchGrowsTheTargets() throws Exception {
+        AdaptiveBatcher batcher = new AdaptiveBatcher();
+        List<Integer> statuses = new ArrayList<>(List.of(200));
+        batcher.executeAll(slides(statuses, new ArrayList<>()), "p", Collections.nCopies(100, insertText("x")));
+        assertEquals(125, batcher.getTargetRequests());
+    }
+
+    @Test
+    void aSmallBatchDoesNotGrowTheTargets() throws Exception {
+        AdaptiveBatcher batcher = new AdaptiveBatcher();
+        batcher.executeAll(slides(new ArrayList<>(List.of(200)), new ArrayList<>()), "p", List.of(insertText("x")));
+        assertEquals(100, batcher.getTargetRequests());
+    }
+
+    @Test
+    void aThrottledBatchHalvesTheTargetsAndIsResent() throws Exception {
+        AdaptiveBatcher batcher = new AdaptiveBatcher();
+        List<String> calls = new ArrayList<>();
+        batcher.executeAll(slides(new ArrayList<>(List.of(429, 200, 200)), calls), "p",
+                Collections.nCopies(80, insertText("x")));
+        // 80 requêtes refusées, puis renvoyées en deux lots (50 et 30) à la cible réduite de moitié ;
+        // le premier lot, plein et rapide, fait ensuite remonter la cible de 50 à 63
+        assertEquals(List.of("POST", "POST", "POST"), calls);
+        assertEquals(63, batcher.getTargetRequests());
+    }
+
+    @Test
+    void aThrottleHandlerRunsBeforeTheResend() throws Exception {
+        AdaptiveBatcher batcher = new AdaptiveBatcher();
+        List<String> calls = new ArrayList<>();
+        AdaptiveBatcher.Session session = batcher.open(slides(new ArrayList<>(List.of(429, 200)), calls), "p",
+                () -> calls.add("requeue"));
+        session.add(List.of(insertText("x")));
+        session.flush();
+        assertEquals(List.of("POST", "requeue", "POST"), calls);
+    }
+
+    @Test
+    void aServerErrorOnABatchWithoutCreatedObjectIsNotResent() {
+        AdaptiveBatcher batcher = new AdaptiveBatcher();
+        List<String> calls = new ArrayList<>();
+        GoogleJsonResponseException error = assertThrows(GoogleJsonResponseException.class, () ->
+                batcher.executeAll(slides(new ArrayList<>(List.of(500, 200)), calls), "p", List.of(insertText("x"))));
+        assertEquals(500, error.getStatusCode());
+        assertEquals(List.of("POST"), calls);
+    }
+
+    @Test
+    void aServerErrorOnAnAppliedBatchIsNotResent() throws Exception {
+        AdaptiveBatcher batcher = new AdaptiveBatcher();
+        List<String> calls = new ArrayList<>();
+        Slides slidesService = slides(new ArrayList<>(List.of(504, 200)), calls,
+                "{\"slides\":[{\"objectId\":\"slide_1\"}]}");
+        batcher.executeAll(slidesService, "p", List.of(createSlide("slide_1"), insertText("x")));
+        // Le batchUpdate, puis la lecture qui trouve la diapositive créée
+        assertEquals(List.of("POST", "GET"), calls);
+    }
+
+    @Test
+    void firstCreatedObjectIdSkipsRequestsThatCreateNothing() {
+        assertEquals("slide_2", AdaptiveBatcher.firstCreatedObjectId(List.of(insertText("x"), createSlide("slide_2"))));
+        assertNull(AdaptiveBatcher.firstCreatedObjectId(List.of(insertText("x"))));
+    }
+
+    private static Request insertText(String text) {
+        return new Request().setInsertText(new InsertTextRequest().setObjectId("body").setText(text));
+    }
+
+    private static Request createSlide(String objectId) {
+        return new Request().setCreateSlide(new CreateSlideRequest().setObjectId(objectId));
+    }
+
+    private static Slides slides(List<Integer> statuses, List<String> calls) {
+        return slides(statuses, calls, "{}");
+    }
+
+    /* Client Slides dont chaque appel consomme le statut suivant de la liste et répond le corps donné.*/
+    private static Slides slides(List<Integer> statuses, List<String> calls, String body) {
+        MockHttpTransport transport = new MockHttpTransport() {
+            @Override
+            public LowLevelHttpRequest buildRequest(String method, String url) {
+                calls.add(method);
+                int status = statuses.remove(0);
+                return new MockLowLevelHttpRequest() {
+                    @Override
+                    public LowLevelHttpResponse execute() {
+                        return new MockLowLevelHttpResponse()
+                            .setStatusCode(status)
+                            .setContentType(Json.MEDIA_TYPE)
+                            .setContent(status == 200 ? body : "{\"error\":{\"code\":" + status + "}}");
+                    }
+                };
+            }
+        };
+        return new Slides.Builder(transport, GsonFactory.getDefaultInstance(), null)
+            .setApplicationName("test")
+            .build();
+    }
+}
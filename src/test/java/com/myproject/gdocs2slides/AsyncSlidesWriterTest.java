@@ -0,0 +1,168 @@
+package com.myproject.gdocs2slides;
+
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.json.Json;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.api.services.slides.v1.Slides;
+import com.google.api.services.slides.v1.model.BatchUpdatePresentationRequest;
+import com.google.api.services.slides.v1.model.LayoutPlaceholderIdMapping;
+import com.google.api.services.slides.v1.model.Request;
+import com.myproject.gdocs2slides.model.ContentElement;
+import com.myproject.gdocs2slides.model.ContentElement.ElementType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/* Tests de la classe AsyncSlidesWriter : ordre des créations, regroupement et parallélisme des contenus.*/
+class AsyncSlidesWriterTest {
+
+    @Test
+    void slidesAreCreatedInPlanOrderBeforeTheirContent() throws Exception {
+        FakeSlides fake = new FakeSlides(0, -1);
+        new AsyncSlidesWriter(fake.service(), ConversionProfile.STANDARD, 4, 2, null, new AdaptiveBatcher())
+            .convertToSlides("Deck", slides(30));
+
+        assertEquals(30, fake.titlePlaceholders.size());
+        for (int i = 0; i < 30; i++) {
+            assertEquals("Slide " + i, fake.texts.get(fake.titlePlaceholders.get(i)));
+        }
+        assertFalse(fake.contentBeforeCreation);
+    }
+
+    @Test
+    void contentOfReadySlidesIsCoalescedIntoBatches() throws Exception {
+        FakeSlides fake = new FakeSlides(0, -1);
+        new AsyncSlidesWriter(fake.service(), ConversionProfile.STANDARD, 4, 2, null, new AdaptiveBatcher())
+            .convertToSlides("Deck", slides(30));
+
+        // Au moins trois requêtes de contenu par diapositive, regroupées en lots d'une centaine de requêtes
+        assertTrue(fake.contentBatches.get() < 30, "content batches: " + fake.contentBatches.get());
+    }
+
+    @Test
+    void contentCallsNeverExceedTheInFlightLimit() throws Exception {
+        FakeSlides fake = new FakeSlides(30, -1);
+        new AsyncSlidesWriter(fake.service(), ConversionProfile.STANDARD, 4, 2, null, new AdaptiveBatcher())
+            .convertToSlides("Deck", slides(150));
+
+        assertTrue(fake.contentBatches.get() > 2);
+        assertTrue(fake.maxConcurrentContent.get() <= 2, "concurrent calls: " + fake.maxConcurrentContent.get());
+    }
+
+    @Test
+    void aFailedContentBatchFailsTheConversion() {
+        FakeSlides fake = new FakeSlides(10, 1);
+        GoogleJsonResponseException error = assertThrows(GoogleJsonResponseException.class, () ->
+                new AsyncSlidesWriter(fake.service(), ConversionProfile.STANDARD, 4, 2, null, new AdaptiveBatcher())
+                    .convertToSlides("Deck", slides(150)));
+        assertEquals(400, error.getStatusCode());
+    }
+
+    private static List<ContentElement> slides(int count) {
+        List<ContentElement> content = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            content.add(new ContentElement(ElementType.HEADING_1, "Slide " + i));
+            content.add(new ContentElement(ElementType.PARAGRAPH, "Body of slide " + i));
+        }
+        return content;
+    }
+
+    /* Faux service Slides : enregistre les créations et les contenus, et mesure les appels de contenu simultanés.*/
+    private static final class FakeSlides {
+        private final long contentDelayMillis;
+        private final int failingContentBatch;   // Numéro (à partir de 1) du lot de contenu refusé par un 400, -1 si aucun
+        private final List<String> titlePlaceholders = new ArrayList<>();
+        private final Set<String> created = new HashSet<>();
+        private final Map<String, String> texts = new HashMap<>();
+        private final AtomicInteger contentBatches = new AtomicInteger();
+        private final AtomicInteger concurrentContent = new AtomicInteger();
+        private final AtomicInteger maxConcurrentContent = new AtomicInteger();
+        private volatile boolean contentBeforeCreation = false;
+
+        private FakeSlides(long contentDelayMillis, int failingContentBatch) {
+            this.contentDelayMillis = contentDelayMillis;
+            this.failingContentBatch = failingContentBatch;
+        }
+
+        private Slides service() {
+            MockHttpTransport transport = new MockHttpTransport() {
+                @Override
+                public LowLevelHttpRequest buildRequest(String method, String url) {
+                    return new MockLowLevelHttpRequest() {
+                        @Override
+                        public LowLevelHttpResponse execute() throws IOException {
+                            if (!url.contains(":batchUpdate")) {
+                                return json(200, "{\"presentationId\":\"p\"}");
+                            }
+                            List<Request> requests = GsonFactory.getDefaultInstance()
+                                .fromString(getContentAsString(), BatchUpdatePresentationRequest.class).getRequests();
+                            return requests.get(0).getCreateSlide() != null ? structure(requests) : content(requests);
+                        }
+                    };
+                }
+            };
+            return new Slides.Builder(transport, GsonFactory.getDefaultInstance(), null)
+                .setApplicationName("test")
+                .build();
+        }
+
+        private synchronized LowLevelHttpResponse structure(List<Request> requests) {
+            for (Request request : requests) {
+                for (LayoutPlaceholderIdMapping mapping : request.getCreateSlide().getPlaceholderIdMappings()) {
+                    created.add(mapping.getObjectId());
+                    if ("TITLE".equals(mapping.getLayoutPlaceholder().getType())) {
+                        titlePlaceholders.add(mapping.getObjectId());
+                    }
+                }
+            }
+            return json(200, "{}");
+        }
+
+        private LowLevelHttpResponse content(List<Request> requests) {
+            int number = contentBatches.incrementAndGet();
+            int concurrent = concurrentContent.incrementAndGet();
+            maxConcurrentContent.accumulateAndGet(concurrent, Math::max);
+            try {
+                synchronized (this) {
+                    for (Request request : requests) {
+                        if (request.getInsertText() != null) {
+                            contentBeforeCreation |= !created.contains(request.getInsertText().getObjectId());
+                            texts.put(request.getInsertText().getObjectId(), request.getInsertText().getText());
+                        }
+                    }
+                }
+                Thread.sleep(contentDelayMillis);
+                return number == failingContentBatch ? json(400, "{\"error\":{\"code\":400}}") : json(200, "{}");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return json(500, "{\"error\":{\"code\":500}}");
+            } finally {
+                concurrentContent.decrementAndGet();
+            }
+        }
+
+        private static LowLevelHttpResponse json(int status, String body) {
+            return new MockLowLevelHttpResponse()
+                .setStatusCode(status)
+                .setContentType(Json.MEDIA_TYPE)
+                .setContent(body);
+        }
+    }
+}
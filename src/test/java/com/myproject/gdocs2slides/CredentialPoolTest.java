@@ -0,0 +1,144 @@
+package com.myproject.gdocs2slides;
+
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.json.Json;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/* Tests de la classe CredentialPool : ordre d'attribution, pauses après un 429 et remise en file, avec une horloge simulée.*/
+class CredentialPoolTest {
+
+    private static final long COOLDOWN = 30_000;
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+    private final AtomicInteger status = new AtomicInteger(200);   // Statut renvoyé par toutes les identités
+
+    @Test
+    void acquirePrefersTheLeastBusyThenTheLeastRecentlyThrottledIdentity() throws Exception {
+        CredentialPool pool = pool("a", "b", "c");
+        CredentialPool.Lease a = pool.acquire();
+        CredentialPool.Lease b = pool.acquire();
+        CredentialPool.Lease c = pool.acquire();
+        assertEquals("a", a.getIdentityName());
+        assertEquals("b", b.getIdentityName());
+        assertEquals("c", c.getIdentityName());
+
+        throttle(b);
+        b.close();
+        c.close();
+        clock.addAndGet(COOLDOWN);
+
+        // b et c n'ont plus de conversion en cours ; c n'a jamais été limitée
+        assertEquals("c", pool.acquire().getIdentityName());
+        assertEquals("b", pool.acquire().getIdentityName());
+    }
+
+    @Test
+    void cooldownDoublesOnConsecutiveThrottlesUpToTenMinutes() throws Exception {
+        CredentialPool pool = pool("a");
+        CredentialPool.Lease lease = pool.acquire();
+
+        long[] expected = {30_000, 60_000, 120_000, 240_000, 480_000, 600_000, 600_000};
+        for (long pause : expected) {
+            throttle(lease);
+            assertEquals(pause, cooldown(pool));
+            clock.addAndGet(pause);
+        }
+    }
+
+    @Test
+    void aSuccessfulResponseResetsTheThrottleSeries() throws Exception {
+        CredentialPool pool = pool("a");
+        CredentialPool.Lease lease = pool.acquire();
+        throttle(lease);
+        throttle(lease);
+        assertEquals(2 * COOLDOWN, cooldown(pool));
+
+        status.set(200);
+        lease.getSlidesService().presentations().get("p").execute();
+        throttle(lease);
+
+        assertEquals(COOLDOWN, cooldown(pool));
+    }
+
+    @Test
+    void requeueGivesTheIdentityBackUntilItsCooldownEnds() throws Exception {
+        CredentialPool pool = pool("a", "b");
+        CredentialPool.Lease a = pool.acquire();
+        throttle(a);
+
+        Thread requeued = new Thread(() -> {
+            try {
+                a.requeue();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        requeued.start();
+        requeued.join(200);
+        assertTrue(requeued.isAlive());
+        assertTrue(pool.usageReport().get(0).endsWith(", 0 active jobs"), pool.usageReport().get(0));
+
+        // Fin de la pause, puis une libération réveille l'attente
+        clock.addAndGet(COOLDOWN);
+        pool.acquire().close();
+        requeued.join(5_000);
+
+        assertFalse(requeued.isAlive());
+        assertTrue(pool.usageReport().get(0).endsWith(", 1 active jobs"), pool.usageReport().get(0));
+    }
+
+    private CredentialPool pool(String... names) {
+        CredentialPool pool = new CredentialPool(COOLDOWN, clock::get);
+        for (String name : names) {
+            pool.add(name, transport(), request -> { });
+        }
+        return pool;
+    }
+
+    /* Envoie une requête de l'identité attribuée, refusée par un 429.*/
+    private void throttle(CredentialPool.Lease lease) {
+        status.set(429);
+        GoogleJsonResponseException error = assertThrows(GoogleJsonResponseException.class,
+                () -> lease.getSlidesService().presentations().get("p").execute());
+        assertEquals(429, error.getStatusCode());
+    }
+
+    /* Retourne la pause restante de la première identité du pool, lue dans son rapport d'utilisation.*/
+    private static long cooldown(CredentialPool pool) {
+        String report = pool.usageReport().get(0);
+        int start = report.indexOf("cooling down ") + "cooling down ".length();
+        return Long.parseLong(report.substring(start, report.indexOf(" ms", start)));
+    }
+
+    private MockHttpTransport transport() {
+        return new MockHttpTransport() {
+            @Override
+            public LowLevelHttpRequest buildRequest(String method, String url) {
+                return new MockLowLevelHttpRequest() {
+                    @Override
+                    public LowLevelHttpResponse execute() throws IOException {
+                        int code = status.get();
+                        return new MockLowLevelHttpResponse()
+                            .setStatusCode(code)
+                            .setContentType(Json.MEDIA_TYPE)
+                            .setContent(code == 200 ? "{\"presentationId\":\"p\"}" : "{\"error\":{\"code\":" + code + "}}");
+                    }
+                };
+            }
+        };
+    }
+}
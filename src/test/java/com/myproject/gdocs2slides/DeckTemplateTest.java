@@ -0,0 +1,155 @@
+package com.myproject.gdocs2slides;
+
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.json.Json;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.api.services.slides.v1.Slides;
+import com.google.api.services.slides.v1.model.BatchUpdatePresentationRequest;
+import com.google.api.services.slides.v1.model.CreateSlideRequest;
+import com.google.api.services.slides.v1.model.Request;
+import com.myproject.gdocs2slides.model.ContentElement;
+import com.myproject.gdocs2slides.model.ContentElement.ElementType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/* Tests de la classe DeckTemplate : copie du modèle, lecture unique de ses mises en page et remplacement des jetons.*/
+class DeckTemplateTest {
+
+    private static final String LAYOUTS = "{\"pageSize\":{\"width\":{\"magnitude\":9144000,\"unit\":\"EMU\"},"
+            + "\"height\":{\"magnitude\":5143500,\"unit\":\"EMU\"}},\"layouts\":["
+            + "{\"objectId\":\"tpl_title\",\"layoutProperties\":{\"name\":\"TITLE\"}},"
+            + "{\"objectId\":\"tpl_body\",\"layoutProperties\":{\"name\":\"TITLE_AND_BODY\"}},"
+            + "{\"objectId\":\"tpl_section\",\"layoutProperties\":{\"displayName\":\"Section header\"}},"
+            + "{\"objectId\":\"tpl_blank\",\"layoutProperties\":{\"name\":\"BLANK\"}}]}";
+
+    // Le cache des modèles est partagé par le processus : un identifiant neuf par test
+    private final String templateId = "template-" + UUID.randomUUID();
+    private final List<String[]> copies = new ArrayList<>();
+    private final DeckTemplate template = new DeckTemplate(templateId, (id, title) -> {
+        copies.add(new String[] {id, title});
+        return "copy" + copies.size();
+    });
+
+    @Test
+    void layoutsAreReadOnceAndMappedByName() throws Exception {
+        FakeSlides fake = new FakeSlides();
+
+        Map<String, String> layouts = template.getLayouts(fake.service());
+        template.getPageSize(fake.service());
+        template.getLayouts(fake.service());
+
+        assertEquals(1, fake.templateReads);
+        assertEquals("tpl_body", layouts.get("TITLE_AND_BODY"));
+        assertEquals("tpl_section", layouts.get("SECTION_HEADER"));
+        assertEquals(9144000.0, template.getPageSize(fake.service()).getWidth().getMagnitude());
+    }
+
+    @Test
+    void eachConversionCopiesTheTemplateOnceAndReusesItsLayouts() throws Exception {
+        FakeSlides fake = new FakeSlides();
+
+        SlidesWriter.convertToSlides(fake.service(), "First", content(), ConversionProfile.STANDARD, template);
+        SlidesWriter.convertToSlides(fake.service(), "Second", content(), ConversionProfile.STANDARD, template);
+
+        assertEquals(2, copies.size());
+        assertEquals(templateId, copies.get(0)[0]);
+        assertTrue(copies.get(0)[1].startsWith("First - "), copies.get(0)[1]);
+        assertEquals(1, fake.templateReads);
+        assertEquals(Set.of("copy1", "copy2"), fake.batches.keySet());
+    }
+
+    @Test
+    void tokensAreReplacedInTheFirstBatch() throws Exception {
+        FakeSlides fake = new FakeSlides();
+
+        SlidesWriter.convertToSlides(fake.service(), "Deck", content(), ConversionProfile.STANDARD, template);
+
+        List<Request> first = fake.batches.get("copy1").get(0);
+        assertEquals(DeckTemplate.TITLE_TOKEN, first.get(0).getReplaceAllText().getContainsText().getText());
+        assertEquals("Deck", first.get(0).getReplaceAllText().getReplaceText());
+        assertEquals(DeckTemplate.DATE_TOKEN, first.get(1).getReplaceAllText().getContainsText().getText());
+        assertNotNull(first.get(2).getCreateSlide());
+    }
+
+    @Test
+    void slidesAreCreatedOnTheTemplateLayouts() throws Exception {
+        FakeSlides fake = new FakeSlides();
+
+        SlidesWriter.convertToSlides(fake.service(), "Deck", content(), ConversionProfile.STANDARD, template);
+
+        List<String> layoutIds = new ArrayList<>();
+        for (List<Request> batch : fake.batches.get("copy1")) {
+            for (Request request : batch) {
+                CreateSlideRequest createSlide = request.getCreateSlide();
+                if (createSlide != null) {
+                    assertNull(createSlide.getSlideLayoutReference().getPredefinedLayout());
+                    layoutIds.add(createSlide.getSlideLayoutReference().getLayoutId());
+                }
+            }
+        }
+        assertEquals(List.of("tpl_title", "tpl_body"), layoutIds);
+    }
+
+    private static List<ContentElement> content() {
+        return List.of(
+                new ContentElement(ElementType.DOCUMENT_TITLE, "Deck"),
+                new ContentElement(ElementType.HEADING_1, "Intro"),
+                new ContentElement(ElementType.PARAGRAPH, "Body"));
+    }
+
+    /* Faux service Slides : sert les mises en page du modèle et enregistre les lots reçus par présentation.*/
+    private final class FakeSlides {
+        private int templateReads;
+        private final Map<String, List<List<Request>>> batches = new HashMap<>();
+
+        private Slides service() {
+            MockHttpTransport transport = new MockHttpTransport() {
+                @Override
+                public LowLevelHttpRequest buildRequest(String method, String url) {
+                    return new MockLowLevelHttpRequest() {
+                        @Override
+                        public LowLevelHttpResponse execute() throws IOException {
+                            synchronized (FakeSlides.this) {
+                                if (!url.contains(":batchUpdate")) {
+                                    templateReads += url.contains(templateId) ? 1 : 0;
+                                    return json(LAYOUTS);
+                                }
+                                String presentationId = url.substring(url.lastIndexOf('/') + 1, url.indexOf(":batchUpdate"));
+                                batches.computeIfAbsent(presentationId, id -> new ArrayList<>())
+                                    .add(GsonFactory.getDefaultInstance()
+                                        .fromString(getContentAsString(), BatchUpdatePresentationRequest.class)
+                                        .getRequests());
+                                return json("{}");
+                            }
+                        }
+                    };
+                }
+            };
+            return new Slides.Builder(transport, GsonFactory.getDefaultInstance(), null)
+                .setApplicationName("test")
+                .build();
+        }
+    }
+
+    private static MockLowLevelHttpResponse json(String body) {
+        return new MockLowLevelHttpResponse()
+            .setContentType(Json.MEDIA_TYPE)
+            .setContent(body);
+    }
+}
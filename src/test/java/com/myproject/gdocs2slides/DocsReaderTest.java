@@ -0,0 +1,130 @@
+package com.myproject.gdocs2slides;
+
+import com.google.api.services.docs.v1.model.Body;
+import com.google.api.services.docs.v1.model.Document;
+import com.google.api.services.docs.v1.model.DocumentTab;
+import com.google.api.services.docs.v1.model.Paragraph;
+import com.google.api.services.docs.v1.model.ParagraphElement;
+import com.google.api.services.docs.v1.model.StructuralElement;
+import com.google.api.services.docs.v1.model.Tab;
+import com.google.api.services.docs.v1.model.TabProperties;
+import com.google.api.services.docs.v1.model.Table;
+import com.google.api.services.docs.v1.model.TableCell;
+import com.google.api.services.docs.v1.model.TableRow;
+import com.google.api.services.docs.v1.model.TableRowStyle;
+import com.google.api.services.docs.v1.model.TextRun;
+import com.google.api.services.docs.v1.model.TextStyle;
+import com.myproject.gdocs2slides.model.ContentElement;
+import com.myproject.gdocs2slides.model.ContentElement.ElementType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/* Tests de la classe DocsReader : découpage des tableaux en fenêtres de la taille d'une diapositive.*/
+class DocsReaderTest {
+
+    @Test
+    void aMarkedHeaderIsRepeatedInEachRowWindow() throws Exception {
+        List<TableRow> rows = new ArrayList<>();
+        rows.add(row(2, "h", false).setTableRowStyle(new TableRowStyle().setTableHeader(true)));
+        for (int i = 0; i < 20; i++) {
+            rows.add(row(2, "r" + i, false));
+        }
+        List<ContentElement> windows = tables(rows);
+
+        assertEquals(2, windows.size());
+        assertEquals(12, windows.get(0).getRows());
+        assertEquals("h0", windows.get(1).getTableData().get(0).get(0));
+        assertEquals("r110", windows.get(1).getTableData().get(1).get(0));
+        assertEquals(10, windows.get(1).getRows());
+    }
+
+    @Test
+    void aBoldFirstRowIsTreatedAsAHeader() throws Exception {
+        List<TableRow> rows = new ArrayList<>();
+        rows.add(row(2, "h", true));
+        for (int i = 0; i < 12; i++) {
+            rows.add(row(2, "r" + i, false));
+        }
+        List<ContentElement> windows = tables(rows);
+
+        assertEquals(2, windows.size());
+        assertEquals("h0", windows.get(1).getTableData().get(0).get(0));
+    }
+
+    @Test
+    void aPlainFirstRowIsNotRepeated() throws Exception {
+        List<TableRow> rows = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            rows.add(row(2, "r" + i, false));
+        }
+        List<ContentElement> windows = tables(rows);
+
+        assertEquals(2, windows.size());
+        assertEquals("r120", windows.get(1).getTableData().get(0).get(0));
+        assertEquals(8, windows.get(1).getRows());
+    }
+
+    @Test
+    void wideTablesAreSplitByColumnUnderTheCellLimit() throws Exception {
+        List<TableRow> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            rows.add(row(60, "r" + i + "c", false));
+        }
+        List<ContentElement> windows = tables(rows);
+
+        // 60 colonnes : bandes de 48 et 12 colonnes, deux lignes par fenêtre, puis la troisième ligne
+        assertEquals(4, windows.size());
+        assertEquals(48, windows.get(0).getColumns());
+        assertEquals(12, windows.get(1).getColumns());
+        assertEquals("r0c48", windows.get(1).getTableData().get(0).get(0));
+        for (ContentElement window : windows) {
+            assertTrue(window.getRows() * window.getColumns() <= 96);
+        }
+    }
+
+    @Test
+    void truncationDoesNotSplitASurrogatePair() throws Exception {
+        String emoji = "😀";
+        String text = "x".repeat(298) + emoji + "tail";
+        List<ContentElement> windows = tables(List.of(new TableRow().setTableCells(List.of(cell(text, false)))));
+
+        String truncated = windows.get(0).getTableData().get(0).get(0);
+        assertEquals("x".repeat(298) + "…", truncated);
+        assertFalse(Character.isHighSurrogate(truncated.charAt(truncated.length() - 2)));
+    }
+
+    /* Extrait les fenêtres de tableau d'un document à un seul onglet contenant le tableau donné.*/
+    private static List<ContentElement> tables(List<TableRow> rows) throws Exception {
+        Table table = new Table().setTableRows(rows).setColumns(rows.get(0).getTableCells().size());
+        Tab tab = new Tab()
+            .setTabProperties(new TabProperties().setTitle("Tab"))
+            .setDocumentTab(new DocumentTab().setBody(new Body().setContent(List.of(new StructuralElement().setTable(table)))));
+        List<ContentElement> tables = new ArrayList<>();
+        for (ContentElement element : DocsReader.extractContent(new Document().setTabs(List.of(tab)), "doc")) {
+            if (element.getType() == ElementType.TABLE) {
+                tables.add(element);
+            }
+        }
+        return tables;
+    }
+
+    private static TableRow row(int columns, String prefix, boolean bold) {
+        List<TableCell> cells = new ArrayList<>();
+        for (int i = 0; i < columns; i++) {
+            cells.add(cell(prefix + i, bold));
+        }
+        return new TableRow().setTableCells(cells);
+    }
+
+    private static TableCell cell(String text, boolean bold) {
+        TextRun run = new TextRun().setContent(text + "\n").setTextStyle(new TextStyle().setBold(bold));
+        Paragraph paragraph = new Paragraph().setElements(List.of(new ParagraphElement().setTextRun(run)));
+        return new TableCell().setContent(List.of(new StructuralElement().setParagraph(paragraph)));
+    }
+}
@@ -0,0 +1,202 @@
+package com.myproject.gdocs2slides;
+
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.json.Json;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.api.services.docs.v1.Docs;
+import com.google.api.services.slides.v1.Slides;
+import com.google.api.services.slides.v1.model.BatchUpdatePresentationRequest;
+import com.google.api.services.slides.v1.model.Request;
+import com.myproject.gdocs2slides.model.ContentElement;
+import com.myproject.gdocs2slides.model.ContentElement.ElementType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/* Tests de la classe DocumentWatcher : attente de fin de rafale, aléa des délais, reprise du fichier d'état
+ * et ordre des lots d'une réécriture.*/
+class DocumentWatcherTest {
+
+    private static final long HOUR = 3_600_000;
+    private static final long DEBOUNCE = 15_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void jitteredDelaysStayWithinTwentyPercent() {
+        for (int i = 0; i < 1_000; i++) {
+            long delay = DocumentWatcher.jittered(10_000);
+            assertTrue(delay >= 8_000 && delay <= 12_000, "delay: " + delay);
+        }
+        assertTrue(DocumentWatcher.jittered(0) >= 1);
+    }
+
+    @Test
+    void aChangeIsSyncedOnlyAfterTheDebouncePeriod() throws Exception {
+        FakeSlides slides = new FakeSlides();
+        try (DocumentWatcher watcher = watcher(slides, null)) {
+            watcher.watch("doc", "pres");
+            DocumentWatcher.WatchedDocument document = watcher.getWatched("doc");
+
+            assertEquals(DEBOUNCE, watcher.observe(document, "r1", 1_000));
+            assertEquals(DEBOUNCE - 5_000, watcher.observe(document, "r1", 6_000));
+            // Une nouvelle révision pendant l'attente la fait repartir de zéro
+            assertEquals(DEBOUNCE, watcher.observe(document, "r2", 10_000));
+            assertEquals(0, watcher.observe(document, "r2", 10_000 + DEBOUNCE));
+        }
+    }
+
+    @Test
+    void aDocumentAtItsStoredRevisionIsNotSyncedAfterARestart() throws Exception {
+        Path stateFile = writeState("doc", "pres", "r1", new byte[] {1, 2, 3});
+        try (DocumentWatcher watcher = watcher(new FakeSlides(), stateFile)) {
+            watcher.watch("doc");
+
+            assertEquals(-1, watcher.observe(watcher.getWatched("doc"), "r1", 0));
+            assertEquals(SlidesWriter.presentationUrl("pres"), watcher.getPresentationUrl("doc"));
+        }
+    }
+
+    @Test
+    void aRevisionWithAnUnchangedFingerprintSkipsTheRebuild() throws Exception {
+        byte[] fingerprint = DocumentWatcher.fingerprint(DocsReader.extractContent(docs(), "doc"));
+        Path stateFile = writeState("doc", "pres", "r1", fingerprint);
+        FakeSlides slides = new FakeSlides();
+        try (DocumentWatcher watcher = watcher(slides, stateFile)) {
+            watcher.watch("doc");
+            watcher.sync(watcher.getWatched("doc"), "r2");
+        }
+
+        assertEquals(0, slides.calls);
+        assertEquals("r2", readState(stateFile).getProperty("doc.revision"));
+    }
+
+    @Test
+    void aChangedFingerprintRebuildsThePresentation() throws Exception {
+        Path stateFile = writeState("doc", "pres", "r1", new byte[] {1, 2, 3});
+        FakeSlides slides = new FakeSlides();
+        try (DocumentWatcher watcher = watcher(slides, stateFile)) {
+            watcher.watch("doc");
+            watcher.sync(watcher.getWatched("doc"), "r2");
+        }
+
+        List<Request> lastBatch = slides.batches.get(slides.batches.size() - 1);
+        assertEquals("old", lastBatch.get(lastBatch.size() - 1).getDeleteObject().getObjectId());
+
+        Properties state = readState(stateFile);
+        assertEquals("pres", state.getProperty("doc"));
+        assertEquals("r2", state.getProperty("doc.revision"));
+        assertNotEquals(Base64.getEncoder().encodeToString(new byte[] {1, 2, 3}), state.getProperty("doc.fingerprint"));
+    }
+
+    @Test
+    void aRewriteWritesTheNewSlidesBeforeDeletingTheOldOnes() throws Exception {
+        List<ContentElement> content = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            content.add(new ContentElement(ElementType.HEADING_1, "Slide " + i));
+            content.add(new ContentElement(ElementType.PARAGRAPH, "Body of slide " + i));
+        }
+        FakeSlides slides = new FakeSlides();
+        SlidesWriter.rewritePresentation(slides.service(), "pres", content, ConversionProfile.STANDARD);
+
+        assertTrue(slides.batches.size() > 1);
+        for (List<Request> batch : slides.batches.subList(0, slides.batches.size() - 1)) {
+            assertTrue(batch.stream().noneMatch(request -> request.getDeleteObject() != null));
+        }
+        List<Request> lastBatch = slides.batches.get(slides.batches.size() - 1);
+        assertEquals("old", lastBatch.get(lastBatch.size() - 1).getDeleteObject().getObjectId());
+    }
+
+    private DocumentWatcher watcher(FakeSlides slides, Path stateFile) throws IOException {
+        // Intervalle d'une heure : aucune interrogation planifiée ne s'exécute pendant le test
+        return new DocumentWatcher(docs(), slides.service(), ConversionProfile.STANDARD, HOUR, DEBOUNCE, 1, stateFile);
+    }
+
+    private Path writeState(String documentId, String presentationId, String revision, byte[] fingerprint)
+            throws IOException {
+        Properties state = new Properties();
+        state.setProperty(documentId, presentationId);
+        state.setProperty(documentId + ".revision", revision);
+        state.setProperty(documentId + ".fingerprint", Base64.getEncoder().encodeToString(fingerprint));
+        Path stateFile = directory.resolve("state.properties");
+        try (Writer writer = Files.newBufferedWriter(stateFile, StandardCharsets.UTF_8)) {
+            state.store(writer, null);
+        }
+        return stateFile;
+    }
+
+    private static Properties readState(Path stateFile) throws IOException {
+        Properties state = new Properties();
+        try (Reader reader = Files.newBufferedReader(stateFile, StandardCharsets.UTF_8)) {
+            state.load(reader);
+        }
+        return state;
+    }
+
+    /* Service Docs dont tous les documents sont vides.*/
+    private static Docs docs() {
+        MockHttpTransport transport = new MockHttpTransport.Builder()
+            .setLowLevelHttpResponse(json("{\"revisionId\":\"r0\"}"))
+            .build();
+        return new Docs.Builder(transport, GsonFactory.getDefaultInstance(), null)
+            .setApplicationName("test")
+            .build();
+    }
+
+    private static MockLowLevelHttpResponse json(String body) {
+        return new MockLowLevelHttpResponse()
+            .setContentType(Json.MEDIA_TYPE)
+            .setContent(body);
+    }
+
+    /* Faux service Slides : une présentation contenant la diapositive "old", et les lots reçus.*/
+    private static final class FakeSlides {
+        private final List<List<Request>> batches = new ArrayList<>();
+        private int calls;
+
+        private Slides service() {
+            MockHttpTransport transport = new MockHttpTransport() {
+                @Override
+                public LowLevelHttpRequest buildRequest(String method, String url) {
+                    return new MockLowLevelHttpRequest() {
+                        @Override
+                        public LowLevelHttpResponse execute() throws IOException {
+                            synchronized (FakeSlides.this) {
+                                calls++;
+                                if (!url.contains(":batchUpdate")) {
+                                    return json("{\"presentationId\":\"pres\",\"slides\":[{\"objectId\":\"old\"}]}");
+                                }
+                                batches.add(GsonFactory.getDefaultInstance()
+                                    .fromString(getContentAsString(), BatchUpdatePresentationRequest.class)
+                                    .getRequests());
+                                return json("{}");
+                            }
+                        }
+                    };
+                }
+            };
+            return new Slides.Builder(transport, GsonFactory.getDefaultInstance(), null)
+                .setApplicationName("test")
+                .build();
+        }
+    }
+}
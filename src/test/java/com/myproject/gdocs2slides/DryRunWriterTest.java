@@ -0,0 +1,40 @@
+package com.myproject.gdocs2slides;
+
+import com.myproject.gdocs2slides.model.ContentElement;
+import com.myproject.gdocs2slides.model.ContentElement.ElementType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/* Tests de la classe DryRunWriter.*/
+class DryRunWriterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void planBatchesMatchTheEstimate() throws Exception {
+        List<ContentElement> content = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            content.add(new ContentElement(ElementType.HEADING_2, "Slide " + i));
+            content.add(new ContentElement(ElementType.PARAGRAPH, "Body of slide " + i));
+        }
+        Path output = directory.resolve("plan.ndjson");
+
+        DryRunReport report = DryRunWriter.write("Deck", content, ConversionProfile.STANDARD, output, true);
+        ConversionEstimate estimate = SlidesWriter.estimate(content, ConversionProfile.STANDARD);
+
+        assertEquals(40, report.getSlideCount());
+        assertTrue(report.getBatchCount() < report.getSlideCount());
+        assertEquals(report.getBatchCount(), Files.readAllLines(output).size());
+        assertEquals(estimate.getApiCallCount(), report.getProjectedApiCalls());
+        assertEquals(estimate.getRequestCount(), report.getRequestCount());
+    }
+}
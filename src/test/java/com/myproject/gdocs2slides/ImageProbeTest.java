@@ -0,0 +1,99 @@
+package com.myproject.gdocs2slides;
+
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/* Tests de la classe ImageProbe : lecture des dimensions dans les en-têtes d'image.*/
+class ImageProbeTest {
+
+    @Test
+    void pngDimensionsComeFromTheIhdrChunk() {
+        byte[] png = bytes(0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0, 0, 0, 13, 'I', 'H', 'D', 'R',
+                0, 0, 0x03, 0x20, 0, 0, 0x02, 0x58);
+        assertDimensions("png", 800, 600, ImageProbe.parse(png, png.length));
+    }
+
+    @Test
+    void gifDimensionsAreLittleEndian() {
+        byte[] gif = bytes('G', 'I', 'F', '8', '9', 'a', 0x40, 0x01, 0xF0, 0x00);
+        assertDimensions("gif", 320, 240, ImageProbe.parse(gif, gif.length));
+    }
+
+    @Test
+    void jpegSegmentsAreSkippedUntilTheStartOfFrame() {
+        byte[] jpeg = bytes(0xFF, 0xD8,
+                0xFF, 0xE0, 0x00, 0x04, 0x00, 0x00,                      // APP0 de 2 octets de données
+                0xFF, 0xC0, 0x00, 0x11, 0x08, 0x01, 0xE0, 0x02, 0x80);   // SOF0 : hauteur 480, largeur 640
+        assertDimensions("jpeg", 640, 480, ImageProbe.parse(jpeg, jpeg.length));
+    }
+
+    @Test
+    void jpegWithoutStartOfFrameInTheReadBytesIsIncomplete() {
+        byte[] jpeg = bytes(0xFF, 0xD8, 0xFF, 0xE1, 0x10, 0x00, 0x00, 0x00);
+        assertNull(ImageProbe.parse(jpeg, jpeg.length));
+    }
+
+    @Test
+    void extendedWebpDimensionsAreStoredMinusOne() {
+        byte[] webp = bytes('R', 'I', 'F', 'F', 0, 0, 0, 0, 'W', 'E', 'B', 'P', 'V', 'P', '8', 'X',
+                0, 0, 0, 0, 0, 0, 0, 0, 0x7F, 0x07, 0x00, 0x37, 0x04, 0x00);
+        assertDimensions("webp", 1920, 1080, ImageProbe.parse(webp, webp.length));
+    }
+
+    @Test
+    void truncatedOrUnknownHeadersAreNotRecognized() {
+        byte[] png = bytes(0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A);
+        assertNull(ImageProbe.parse(png, png.length));
+        byte[] text = "<html>not an image</html>".getBytes();
+        assertNull(ImageProbe.parse(text, text.length));
+    }
+
+    @Test
+    void aProbedUrlIsServedFromTheCache() throws Exception {
+        byte[] gif = bytes('G', 'I', 'F', '8', '9', 'a', 0x10, 0x00, 0x20, 0x00);
+        List<String> calls = new ArrayList<>();
+        MockHttpTransport transport = new MockHttpTransport() {
+            @Override
+            public LowLevelHttpRequest buildRequest(String method, String url) {
+                calls.add(url);
+                return new MockLowLevelHttpRequest() {
+                    @Override
+                    public LowLevelHttpResponse execute() {
+                        return new MockLowLevelHttpResponse().setContent(Arrays.copyOf(gif, gif.length));
+                    }
+                };
+            }
+        };
+        ImageProbe probe = new ImageProbe(transport.createRequestFactory());
+        String url = "https://example.com/cached-" + System.nanoTime() + ".gif";
+
+        assertDimensions("gif", 16, 32, probe.probe(url));
+        assertDimensions("gif", 16, 32, probe.probe(url));
+        assertEquals(1, calls.size());
+    }
+
+    private static void assertDimensions(String format, int width, int height, ImageProbe.Dimensions dimensions) {
+        assertEquals(format, dimensions.getFormat());
+        assertEquals(width, dimensions.getWidth());
+        assertEquals(height, dimensions.getHeight());
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] data = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            data[i] = (byte) values[i];
+        }
+        return data;
+    }
+}
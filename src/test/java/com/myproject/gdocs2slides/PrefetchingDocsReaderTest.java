@@ -0,0 +1,98 @@
+package com.myproject.gdocs2slides;
+
+import com.google.api.services.docs.v1.model.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/* Tests de la classe PrefetchingDocsReader : limites en nombre de documents et en mémoire des récupérations en avance.*/
+class PrefetchingDocsReaderTest {
+
+    private static final long MB = 1024 * 1024;
+    private static final List<String> IDS = List.of("d1", "d2", "d3", "d4", "d5");
+
+    private final AtomicInteger started = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    /* Récupération simulée : compte les appels et attend l'autorisation de terminer.*/
+    private Document fetch(String documentId) {
+        started.incrementAndGet();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new Document().setDocumentId(documentId).setTitle("Document " + documentId);
+    }
+
+    @Test
+    void noMoreThanMaxPrefetchDocumentsAreFetchedAhead() throws Exception {
+        try (PrefetchingDocsReader reader = new PrefetchingDocsReader(this::fetch, IDS, 2, 1024 * MB)) {
+            awaitStarted(2);
+            release.countDown();
+            Thread.sleep(100);
+            assertEquals(2, started.get());
+
+            assertEquals("d1", reader.next().getDocumentId());
+            awaitStarted(3);
+            Thread.sleep(100);
+            assertEquals(3, started.get());
+        }
+    }
+
+    @Test
+    void theInitialEstimateReservesSixteenMegabytesPerFetch() throws Exception {
+        assertEquals(16 * MB, PrefetchingDocsReader.INITIAL_DOCUMENT_ESTIMATE_BYTES);
+        try (PrefetchingDocsReader reader = new PrefetchingDocsReader(this::fetch, IDS, 3, 40 * MB)) {
+            // Deux réservations de 16 Mo tiennent dans 40 Mo, pas trois
+            awaitStarted(2);
+            Thread.sleep(100);
+            assertEquals(2, started.get());
+            release.countDown();
+        }
+    }
+
+    @Test
+    void aFetchIsAlwaysRunningEvenBeyondTheBudget() throws Exception {
+        try (PrefetchingDocsReader reader = new PrefetchingDocsReader(this::fetch, IDS, 3, 1)) {
+            awaitStarted(1);
+            Thread.sleep(100);
+            assertEquals(1, started.get());
+            release.countDown();
+
+            for (String id : IDS) {
+                assertEquals(id, reader.next().getDocumentId());
+            }
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    void measuredSizesReplaceTheInitialEstimate() throws Exception {
+        try (PrefetchingDocsReader reader = new PrefetchingDocsReader(this::fetch, IDS, 3, 20 * MB)) {
+            // Avant toute mesure, une seule réservation de 16 Mo tient dans 20 Mo
+            awaitStarted(1);
+            Thread.sleep(100);
+            assertEquals(1, started.get());
+            release.countDown();
+
+            // Les petits documents mesurés libèrent le budget pour trois récupérations en avance
+            assertEquals("d1", reader.next().getDocumentId());
+            awaitStarted(4);
+        }
+    }
+
+    private void awaitStarted(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (started.get() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, started.get());
+    }
+}
@@ -0,0 +1,143 @@
+package com.myproject.gdocs2slides;
+
+import com.myproject.gdocs2slides.model.ContentElement;
+import com.myproject.gdocs2slides.model.ContentElement.ElementType;
+import com.myproject.gdocs2slides.model.PlannedSlide;
+import com.myproject.gdocs2slides.model.PlannedSlide.SlideKind;
+import com.myproject.gdocs2slides.model.TextStyleSpan;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/* Tests de la classe SlidePlanner.*/
+class SlidePlannerTest {
+
+    private static final ConversionProfile NOTES_PROFILE = ConversionProfile.STANDARD.withSlideLimits(10, 6)
+        .withOverflowMode(ConversionProfile.OverflowMode.SPEAKER_NOTES);
+    private static final String NOTES_TEXT = "One two. Three four five. Six seven eight nine.";
+
+    @Test
+    void headingGivesItsTitleToTheParagraphsUnderIt() {
+        List<PlannedSlide> slides = SlidePlanner.plan(List.of(
+                new ContentElement(ElementType.DOCUMENT_TITLE, "Deck"),
+                new ContentElement(ElementType.HEADING_1, "Intro"),
+                new ContentElement(ElementType.PARAGRAPH, "first"),
+                new ContentElement(ElementType.PARAGRAPH, "second")), ConversionProfile.STANDARD);
+
+        assertEquals(2, slides.size());
+        assertEquals(SlideKind.TITLE, slides.get(0).getKind());
+        assertEquals(SlideKind.TEXT, slides.get(1).getKind());
+        assertEquals("Intro", slides.get(1).getTitle());
+        assertEquals("first\nsecond", slides.get(1).getBody());
+    }
+
+    @Test
+    void headingFollowedByAnImageBecomesASectionHeaderBeforeIt() {
+        ContentElement image = new ContentElement(ElementType.IMAGE, null, "https://example.com/a.png", 0, 0, 100, 50);
+        List<PlannedSlide> slides = SlidePlanner.plan(List.of(
+                new ContentElement(ElementType.HEADING_2, "Architecture"),
+                image,
+                new ContentElement(ElementType.HEADING_2, "Next")), ConversionProfile.STANDARD);
+
+        assertEquals(List.of(SlideKind.SECTION_HEADER, SlideKind.IMAGE, SlideKind.SECTION_HEADER),
+                slides.stream().map(PlannedSlide::getKind).toList());
+        assertEquals("Architecture", slides.get(0).getTitle());
+        assertEquals("Next", slides.get(2).getTitle());
+    }
+
+    @Test
+    void levelThreeHeadingStaysInTheBodyInBold() {
+        List<PlannedSlide> slides = SlidePlanner.plan(List.of(
+                new ContentElement(ElementType.HEADING_2, "Topic"),
+                new ContentElement(ElementType.PARAGRAPH, "intro"),
+                new ContentElement(ElementType.HEADING_3, "Detail"),
+                new ContentElement(ElementType.PARAGRAPH, "text")), ConversionProfile.STANDARD);
+
+        assertEquals(1, slides.size());
+        assertEquals("intro\nDetail\ntext", slides.get(0).getBody());
+        assertEquals(1, slides.get(0).getBodySpans().size());
+        assertTrue(slides.get(0).getBodySpans().get(0).isBold());
+        assertEquals(6, slides.get(0).getBodySpans().get(0).getOffset());
+        assertEquals(6, slides.get(0).getBodySpans().get(0).getLength());
+    }
+
+    @Test
+    void linesBeyondTheProfileLimitGoToAContinuationSlide() {
+        ConversionProfile profile = ConversionProfile.STANDARD.withSlideLimits(2, 100);
+        List<PlannedSlide> slides = SlidePlanner.plan(List.of(
+                new ContentElement(ElementType.HEADING_1, "List"),
+                new ContentElement(ElementType.PARAGRAPH, "one"),
+                new ContentElement(ElementType.PARAGRAPH, "two"),
+                new ContentElement(ElementType.PARAGRAPH, "three")), profile);
+
+        assertEquals(2, slides.size());
+        assertEquals("one\ntwo", slides.get(0).getBody());
+        assertEquals("three", slides.get(1).getBody());
+        assertEquals("List", slides.get(1).getTitle());
+    }
+
+    @Test
+    void notesOverflowCutsAfterTheLastCompleteSentence() {
+        List<PlannedSlide> slides = SlidePlanner.plan(List.of(
+                new ContentElement(ElementType.PARAGRAPH, NOTES_TEXT)), NOTES_PROFILE);
+
+        assertEquals(1, slides.size());
+        assertEquals("One two. Three four five.", slides.get(0).getBody());
+        assertEquals("Six seven eight nine.", slides.get(0).getSpeakerNotes());
+    }
+
+    @Test
+    void notesOverflowCutsAtTheWordLimitWhenTheFirstSentenceIsTooLong() {
+        List<PlannedSlide> slides = SlidePlanner.plan(List.of(
+                new ContentElement(ElementType.PARAGRAPH, "one two three four five six seven eight. Nine.")),
+                NOTES_PROFILE);
+
+        assertEquals(1, slides.size());
+        assertEquals("one two three four five six", slides.get(0).getBody());
+        assertEquals("seven eight. Nine.", slides.get(0).getSpeakerNotes());
+    }
+
+    @Test
+    void notesOverflowKeepsOnlyTheSpansOfTheBody() {
+        ContentElement paragraph = new ContentElement(ElementType.PARAGRAPH, NOTES_TEXT);
+        // "four five. Six" : le segment gras chevauche la coupure, "nine" est entièrement dans les notes
+        paragraph.setStyleSpans(List.of(
+                new TextStyleSpan(15, 14, true, false, false, false, null),
+                new TextStyleSpan(42, 4, false, true, false, false, null)));
+
+        PlannedSlide slide = SlidePlanner.plan(List.of(paragraph), NOTES_PROFILE).get(0);
+
+        assertEquals(1, slide.getBodySpans().size());
+        assertTrue(slide.getBodySpans().get(0).isBold());
+        assertEquals(15, slide.getBodySpans().get(0).getOffset());
+        assertEquals(10, slide.getBodySpans().get(0).getLength());
+    }
+
+    @Test
+    void nestedItemsOfTwoListsFormTwoBlocks() {
+        List<PlannedSlide> slides = SlidePlanner.plan(List.of(
+                listItem("a", "l1", 0),
+                listItem("b", "l1", 1),
+                new ContentElement(ElementType.PARAGRAPH, "plain"),
+                listItem("c", "l2", 0),
+                listItem("d", "l2", 1)), ConversionProfile.STANDARD);
+
+        PlannedSlide slide = slides.get(0);
+        assertEquals("a\n\tb\nplain\nc\n\td", slide.getBody());
+        assertEquals(2, slide.getListBlocks().size());
+        assertEquals(0, slide.getListBlocks().get(0).getOffset());
+        assertEquals(4, slide.getListBlocks().get(0).getEnd());
+        assertEquals(11, slide.getListBlocks().get(1).getOffset());
+        assertEquals(15, slide.getListBlocks().get(1).getEnd());
+    }
+
+    private static ContentElement listItem(String text, String listId, int level) {
+        ContentElement item = new ContentElement(ElementType.LIST_ITEM, text);
+        item.setListId(listId);
+        item.setListLevel(level);
+        return item;
+    }
+}
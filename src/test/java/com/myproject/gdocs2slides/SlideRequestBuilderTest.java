@@ -0,0 +1,65 @@
+package com.myproject.gdocs2slides;
+
+import com.google.api.services.slides.v1.model.AffineTransform;
+import com.google.api.services.slides.v1.model.Dimension;
+import com.google.api.services.slides.v1.model.Request;
+import com.google.api.services.slides.v1.model.Size;
+import com.myproject.gdocs2slides.model.ContentElement;
+import com.myproject.gdocs2slides.model.ListBlock;
+import com.myproject.gdocs2slides.model.PlannedSlide;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/* Tests de la classe SlideRequestBuilder.*/
+class SlideRequestBuilderTest {
+
+    /* Les puces sont créées du dernier bloc au premier, pour que le retrait des tabulations d'un bloc imbriqué
+     * ne décale pas les intervalles des blocs suivants.*/
+    @Test
+    void bulletsAreCreatedFromTheLastBlockBackwards() {
+        String body = "a\n\tb\nplain\nc\n\td";
+        PlannedSlide slide = new PlannedSlide("Title", body);
+        slide.setListBlocks(List.of(new ListBlock(0, 4, "DECIMAL"), new ListBlock(11, 4, null)));
+
+        List<Integer> starts = new ArrayList<>();
+        List<Integer> ends = new ArrayList<>();
+        for (Request request : new SlideRequestBuilder(ConversionProfile.STANDARD, true).buildSlide(slide)) {
+            if (request.getCreateParagraphBullets() != null) {
+                starts.add(request.getCreateParagraphBullets().getTextRange().getStartIndex());
+                ends.add(request.getCreateParagraphBullets().getTextRange().getEndIndex());
+            }
+        }
+        assertEquals(List.of(11, 0), starts);
+        assertEquals(List.of(15, 4), ends);
+    }
+
+    /* Une image est réduite et centrée dans la taille de page du modèle (ici 4:3, donnée en EMU).*/
+    @Test
+    void imagesAreFittedToTheTemplatePageSize() {
+        Size pageSize = new Size()
+            .setWidth(new Dimension().setMagnitude(9144000.0).setUnit("EMU"))
+            .setHeight(new Dimension().setMagnitude(6858000.0).setUnit("EMU"));
+        ContentElement image = new ContentElement(ContentElement.ElementType.IMAGE, null, "https://example.com/a.png",
+                0, 0, 1000, 500);
+        List<Request> requests = new SlideRequestBuilder(ConversionProfile.STANDARD, true, Map.of(), pageSize)
+            .buildSlide(new PlannedSlide(PlannedSlide.SlideKind.IMAGE, image));
+
+        AffineTransform transform = requests.get(1).getCreateImage().getElementProperties().getTransform();
+        assertEquals(648.0, requests.get(1).getCreateImage().getElementProperties().getSize().getWidth().getMagnitude(),
+                1e-9);
+        assertEquals(36.0, transform.getTranslateX(), 1e-9);
+        assertEquals(108.0, transform.getTranslateY(), 1e-9);
+    }
+
+    @Test
+    void bulletPresetFollowsTheDocsGlyph() {
+        assertEquals("NUMBERED_DIGIT_ALPHA_ROMAN", SlideRequestBuilder.bulletPresetFor("DECIMAL"));
+        assertEquals("BULLET_DISC_CIRCLE_SQUARE", SlideRequestBuilder.bulletPresetFor(null));
+        assertEquals("BULLET_STAR_CIRCLE_SQUARE", SlideRequestBuilder.bulletPresetFor("★"));
+    }
+}
@@ -0,0 +1,38 @@
+package com.myproject.gdocs2slides.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/* Tests de la classe ListBlock.*/
+class ListBlockTest {
+
+    @Test
+    void sliceKeepsOnlyTheBlocksInsideTheRangeAndShiftsThem() {
+        List<ListBlock> blocks = List.of(new ListBlock(0, 4, "DECIMAL"), new ListBlock(11, 5, "●"));
+
+        List<ListBlock> sliced = ListBlock.slice(blocks, 10, 20);
+
+        assertEquals(1, sliced.size());
+        assertEquals(1, sliced.get(0).getOffset());
+        assertEquals(5, sliced.get(0).getLength());
+        assertEquals("●", sliced.get(0).getGlyph());
+    }
+
+    @Test
+    void sliceTruncatesABlockThatCrossesTheRange() {
+        List<ListBlock> sliced = ListBlock.slice(List.of(new ListBlock(2, 10, null)), 5, 8);
+
+        assertEquals(1, sliced.size());
+        assertEquals(0, sliced.get(0).getOffset());
+        assertEquals(3, sliced.get(0).getLength());
+    }
+
+    @Test
+    void sliceDropsBlocksThatOnlyTouchTheRange() {
+        assertTrue(ListBlock.slice(List.of(new ListBlock(0, 5, null)), 5, 10).isEmpty());
+    }
+}
@@ -0,0 +1,70 @@
+package com.myproject.gdocs2slides.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/* Tests de la classe TextStyleSpan.*/
+class TextStyleSpanTest {
+
+    @Test
+    void coalesceMergesContiguousSpansOfTheSameStyle() {
+        List<TextStyleSpan> merged = TextStyleSpan.coalesce(List.of(bold(0, 3), bold(3, 4)), "abcdefg");
+
+        assertEquals(1, merged.size());
+        assertEquals(0, merged.get(0).getOffset());
+        assertEquals(7, merged.get(0).getLength());
+    }
+
+    @Test
+    void coalesceMergesAcrossASingleLineBreak() {
+        List<TextStyleSpan> merged = TextStyleSpan.coalesce(List.of(bold(0, 3), bold(4, 3)), "abc\ndef");
+
+        assertEquals(1, merged.size());
+        assertEquals(7, merged.get(0).getEnd());
+    }
+
+    @Test
+    void coalesceKeepsSpansSeparatedByTextOrOfAnotherStyle() {
+        String text = "abc def";
+        List<TextStyleSpan> separated = TextStyleSpan.coalesce(List.of(bold(0, 3), bold(4, 3)), text);
+        List<TextStyleSpan> restyled = TextStyleSpan.coalesce(List.of(bold(0, 3), link(3, 4, "https://a")), text);
+
+        assertEquals(2, separated.size());
+        assertEquals(2, restyled.size());
+        assertEquals("https://a", restyled.get(1).getLinkUrl());
+    }
+
+    @Test
+    void coalesceDropsDefaultAndEmptySpans() {
+        TextStyleSpan plain = new TextStyleSpan(0, 3, false, false, false, false, null);
+
+        assertTrue(TextStyleSpan.coalesce(List.of(plain, bold(3, 0)), "abc").isEmpty());
+    }
+
+    @Test
+    void sliceTruncatesAndShiftsSpansToTheRange() {
+        List<TextStyleSpan> spans = List.of(bold(0, 4), link(6, 6, "https://b"), bold(20, 2));
+
+        List<TextStyleSpan> sliced = TextStyleSpan.slice(spans, 2, 10);
+
+        assertEquals(2, sliced.size());
+        assertEquals(0, sliced.get(0).getOffset());
+        assertEquals(2, sliced.get(0).getLength());
+        assertTrue(sliced.get(0).isBold());
+        assertEquals(4, sliced.get(1).getOffset());
+        assertEquals(4, sliced.get(1).getLength());
+        assertEquals("https://b", sliced.get(1).getLinkUrl());
+    }
+
+    private static TextStyleSpan bold(int offset, int length) {
+        return new TextStyleSpan(offset, length, true, false, false, false, null);
+    }
+
+    private static TextStyleSpan link(int offset, int length, String url) {
+        return new TextStyleSpan(offset, length, false, false, true, false, url);
+    }
+}